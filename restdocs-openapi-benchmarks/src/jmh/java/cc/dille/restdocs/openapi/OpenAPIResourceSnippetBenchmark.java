@@ -0,0 +1,30 @@
+package cc.dille.restdocs.openapi;
+
+import static cc.dille.restdocs.openapi.OpenAPIResourceDocumentation.openAPIResource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the whole documentation of an operation: the handlers, the fragment, the bodies and the schemas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OpenAPIResourceSnippetBenchmark {
+
+    @Benchmark
+    public void document(OperationState state) throws IOException {
+        openAPIResource(state.parameters).document(state.operation);
+    }
+}
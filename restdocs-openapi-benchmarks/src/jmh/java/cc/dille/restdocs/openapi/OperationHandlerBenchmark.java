@@ -0,0 +1,68 @@
+package cc.dille.restdocs.openapi;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each handler of the {@link OperationHandlerChain} on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class OperationHandlerBenchmark {
+
+    private final RequestHandler requestHandler = new RequestHandler();
+
+    private final ResponseHandler responseHandler = new ResponseHandler();
+
+    private final LinkHandler linkHandler = new LinkHandler();
+
+    private final ParameterHandler parameterHandler = new ParameterHandler();
+
+    private final ResponseHeaderHandler responseHeaderHandler = new ResponseHeaderHandler();
+
+    private final JwtScopeHandler jwtScopeHandler = new JwtScopeHandler();
+
+    @Benchmark
+    public Map<String, Object> requestHandler(OperationState state) {
+        return requestHandler.generateModel(state.operation, state.parameters);
+    }
+
+    @Benchmark
+    public Map<String, Object> responseHandler(OperationState state) {
+        return responseHandler.generateModel(state.operation, state.parameters);
+    }
+
+    @Benchmark
+    public Map<String, Object> linkHandler(OperationState state) {
+        return linkHandler.generateModel(state.operation, state.parameters);
+    }
+
+    @Benchmark
+    public Map<String, Object> parameterHandler(OperationState state) {
+        return parameterHandler.generateModel(state.operation, state.parameters);
+    }
+
+    @Benchmark
+    public Map<String, Object> responseHeaderHandler(OperationState state) {
+        return responseHeaderHandler.generateModel(state.operation, state.parameters);
+    }
+
+    @Benchmark
+    public Map<String, Object> jwtScopeHandler(OperationState state) {
+        return jwtScopeHandler.generateModel(state.operation, state.parameters);
+    }
+}
@@ -0,0 +1,151 @@
+package cc.dille.restdocs.openapi;
+
+import static cc.dille.restdocs.openapi.OpenAPIResourceDocumentation.linkWithRel;
+import static cc.dille.restdocs.openapi.OpenAPIResourceDocumentation.parameterWithName;
+import static cc.dille.restdocs.openapi.ParameterDescriptorWithOpenAPIType.OpenAPIScalarType.INTEGER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.restdocs.generate.RestDocumentationGenerator.ATTRIBUTE_NAME_URL_TEMPLATE;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.payload.JsonFieldType;
+
+import cc.dille.restdocs.openapi.OpenAPIResourceSnippetParameters.FragmentRenderer;
+
+/**
+ * A synthetic documented operation: a JSON request and a HAL response of roughly {@code payloadKilobytes},
+ * both documented with {@code fieldCount} field descriptors, plus links, parameters and headers.
+ */
+@State(Scope.Benchmark)
+public class OperationState {
+
+    static final String OPERATION_NAME = "benchmark";
+
+    private static final int LINK_COUNT = 5;
+
+    private static final int PARAMETER_COUNT = 5;
+
+    private static final int HEADER_COUNT = 5;
+
+    @Param({"1", "100", "1024", "10240"})
+    public int payloadKilobytes;
+
+    @Param({"10", "100", "1000", "5000"})
+    public int fieldCount;
+
+    @Param({"TEMPLATE", "STREAMING"})
+    public FragmentRenderer fragmentRenderer;
+
+    Operation operation;
+
+    OpenAPIResourceSnippetParameters parameters;
+
+    private Path outputDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("restdocs-openapi-benchmark");
+
+        SyntheticOperationBuilder operationBuilder = new SyntheticOperationBuilder(OPERATION_NAME, outputDirectory.toFile())
+                .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/items/{id}")
+                .request("POST", "http://localhost:8080/items/12")
+                .requestHeader(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .requestHeader(AUTHORIZATION, "Bearer " + jwt())
+                .requestContent(jsonPayload(false))
+                .response(201)
+                .responseHeader(CONTENT_TYPE, "application/hal+json")
+                .responseContent(jsonPayload(true));
+
+        OpenAPIResourceSnippetParameters.OpenAPIResourceSnippetParametersBuilder parametersBuilder = OpenAPIResourceSnippetParameters.builder()
+                .summary("Create an item")
+                .operationId("createItem")
+                .fragmentRenderer(fragmentRenderer)
+                .statusDescription("The created item")
+                .requestFields(fieldDescriptors())
+                .responseFields(fieldDescriptors())
+                .pathParameters(parameterWithName("id").type(INTEGER).description("The id of the item"))
+                .requestHeaders(headerWithName(AUTHORIZATION).description("The bearer token"));
+
+        for (int i = 0; i < PARAMETER_COUNT; i++) {
+            operationBuilder.requestParameter("param" + i, "value" + i);
+            parametersBuilder.requestParameters(parameterWithName("param" + i).description("Parameter " + i));
+        }
+        for (int i = 0; i < HEADER_COUNT; i++) {
+            operationBuilder.responseHeader("X-Header-" + i, "value" + i);
+            parametersBuilder.responseHeaders(headerWithName("X-Header-" + i).description("Header " + i));
+        }
+        for (int i = 0; i < LINK_COUNT; i++) {
+            parametersBuilder.links(linkWithRel("rel" + i).operationId("getRel" + i).description("Link " + i)
+                    .parameter("id", "$response.body", "field0"));
+        }
+
+        operation = operationBuilder.build();
+        parameters = parametersBuilder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private FieldDescriptor[] fieldDescriptors() {
+        FieldDescriptor[] descriptors = new FieldDescriptor[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            descriptors[i] = fieldWithPath("field" + i).type(JsonFieldType.STRING).description("Field " + i);
+        }
+        return descriptors;
+    }
+
+    /**
+     * Spreads the payload size over the documented fields, so that the body is at least {@code payloadKilobytes}.
+     */
+    private byte[] jsonPayload(boolean withLinks) {
+        int valueLength = Math.max(1, payloadKilobytes * 1024 / fieldCount - ("\"field\":\"\",".length() + 4));
+        StringBuilder value = new StringBuilder(valueLength);
+        for (int i = 0; i < valueLength; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+
+        StringBuilder payload = new StringBuilder(payloadKilobytes * 1024 + 1024).append('{');
+        for (int i = 0; i < fieldCount; i++) {
+            payload.append(i == 0 ? "" : ",").append("\"field").append(i).append("\":\"").append(value).append('"');
+        }
+        if (withLinks) {
+            payload.append(",\"_links\":{");
+            for (int i = 0; i < LINK_COUNT; i++) {
+                payload.append(i == 0 ? "" : ",").append("\"rel").append(i)
+                        .append("\":{\"href\":\"http://localhost:8080/rel/").append(i).append("\"}");
+            }
+            payload.append('}');
+        }
+        return payload.append('}').toString().getBytes(UTF_8);
+    }
+
+    private static String jwt() {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(UTF_8))
+                + "." + encoder.encodeToString("{\"sub\":\"benchmark\",\"scope\":[\"items:read\",\"items:write\"]}".getBytes(UTF_8))
+                + ".signature";
+    }
+}
@@ -0,0 +1,121 @@
+package cc.dille.restdocs.openapi;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.restdocs.ManualRestDocumentation;
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.operation.OperationRequestFactory;
+import org.springframework.restdocs.operation.OperationResponseFactory;
+import org.springframework.restdocs.operation.Parameters;
+import org.springframework.restdocs.operation.StandardOperation;
+import org.springframework.restdocs.snippet.RestDocumentationContextPlaceholderResolverFactory;
+import org.springframework.restdocs.snippet.StandardWriterResolver;
+import org.springframework.restdocs.snippet.WriterResolver;
+import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
+import org.springframework.restdocs.templates.TemplateEngine;
+import org.springframework.restdocs.templates.TemplateFormat;
+import org.springframework.restdocs.templates.TemplateFormats;
+import org.springframework.restdocs.templates.mustache.MustacheTemplateEngine;
+
+/**
+ * Builds operations the same way as the OperationBuilder of the library tests, without going through MockMvc.
+ */
+class SyntheticOperationBuilder {
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private final String name;
+
+    private final File outputDirectory;
+
+    private final TemplateFormat templateFormat = TemplateFormats.asciidoctor();
+
+    private URI requestUri = URI.create("http://localhost/");
+
+    private HttpMethod requestMethod = HttpMethod.GET;
+
+    private byte[] requestContent = new byte[0];
+
+    private final HttpHeaders requestHeaders = new HttpHeaders();
+
+    private final Parameters requestParameters = new Parameters();
+
+    private HttpStatus responseStatus = HttpStatus.OK;
+
+    private byte[] responseContent = new byte[0];
+
+    private final HttpHeaders responseHeaders = new HttpHeaders();
+
+    SyntheticOperationBuilder(String name, File outputDirectory) {
+        this.name = name;
+        this.outputDirectory = outputDirectory;
+    }
+
+    SyntheticOperationBuilder attribute(String name, Object value) {
+        this.attributes.put(name, value);
+        return this;
+    }
+
+    SyntheticOperationBuilder request(String method, String uri) {
+        this.requestMethod = HttpMethod.valueOf(method);
+        this.requestUri = URI.create(uri);
+        return this;
+    }
+
+    SyntheticOperationBuilder requestContent(byte[] content) {
+        this.requestContent = content;
+        return this;
+    }
+
+    SyntheticOperationBuilder requestHeader(String name, String value) {
+        this.requestHeaders.add(name, value);
+        return this;
+    }
+
+    SyntheticOperationBuilder requestParameter(String name, String value) {
+        this.requestParameters.add(name, value);
+        return this;
+    }
+
+    SyntheticOperationBuilder response(int status) {
+        this.responseStatus = HttpStatus.valueOf(status);
+        return this;
+    }
+
+    SyntheticOperationBuilder responseContent(byte[] content) {
+        this.responseContent = content;
+        return this;
+    }
+
+    SyntheticOperationBuilder responseHeader(String name, String value) {
+        this.responseHeaders.add(name, value);
+        return this;
+    }
+
+    Operation build() {
+        attributes.putIfAbsent(TemplateEngine.class.getName(),
+                new MustacheTemplateEngine(new StandardTemplateResourceResolver(templateFormat)));
+        attributes.put(RestDocumentationContext.class.getName(), createContext());
+        attributes.put(WriterResolver.class.getName(),
+                new StandardWriterResolver(new RestDocumentationContextPlaceholderResolverFactory(), "UTF-8", templateFormat));
+        return new StandardOperation(name,
+                new OperationRequestFactory().create(requestUri, requestMethod, requestContent, requestHeaders,
+                        requestParameters, Collections.emptyList()),
+                new OperationResponseFactory().create(responseStatus, responseHeaders, responseContent),
+                attributes);
+    }
+
+    private RestDocumentationContext createContext() {
+        ManualRestDocumentation manualRestDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+        manualRestDocumentation.beforeTest(SyntheticOperationBuilder.class, name);
+        return manualRestDocumentation.beforeOperation();
+    }
+}
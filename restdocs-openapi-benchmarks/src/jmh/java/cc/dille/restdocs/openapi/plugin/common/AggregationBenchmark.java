@@ -0,0 +1,82 @@
+package cc.dille.restdocs.openapi.plugin.common;
+
+import static cc.dille.restdocs.openapi.plugin.common.FragmentTreeState.OUTPUT_DIRECTORY;
+import static cc.dille.restdocs.openapi.plugin.common.FragmentTreeState.SNIPPETS_DIRECTORY;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the aggregation done by the openapidoc task, as a whole and phase by phase.
+ * <p>
+ * The phases are measured on the output of the previous ones, prepared once by {@link FragmentTreeState}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class AggregationBenchmark {
+
+    @Benchmark
+    public void aggregateFragments(FragmentTreeState state) {
+        new OpenAPIAggregate("3.0.1", "0.1.0", "Benchmark API", null, null, null, null, null, null,
+                OUTPUT_DIRECTORY, SNIPPETS_DIRECTORY, "api", state.buildDirectory, Runtime.getRuntime().availableProcessors(), false, false, "yaml")
+                .aggregateFragments();
+    }
+
+    /**
+     * Nothing changes between the runs, so all but the first one reuse the fragments and the resources of the manifest.
+     */
+    @Benchmark
+    public void aggregateFragmentsIncrementally(FragmentTreeState state) {
+        new OpenAPIAggregate("3.0.1", "0.1.0", "Benchmark API", null, null, null, null, null, null,
+                OUTPUT_DIRECTORY, SNIPPETS_DIRECTORY, "api", state.buildDirectory, Runtime.getRuntime().availableProcessors(), true, false, "yaml")
+                .aggregateFragments();
+    }
+
+    @Benchmark
+    public void parseFragments(FragmentTreeState state, Blackhole blackhole) {
+        for (File fragmentFile : state.fragmentFiles) {
+            Map<?, ?> fragment = OpenAPIParser.INSTANCE.parseFragment(fragmentFile);
+            blackhole.consume(fragment);
+        }
+    }
+
+    /**
+     * The schemas are not merged here, see {@link #mergeSchemas(FragmentTreeState, Blackhole)}.
+     */
+    @Benchmark
+    public List<ResourceGroup> mergeFragments(FragmentTreeState state) {
+        return FragmentTreeState.resources(state.fragments, new JsonSchemaMerger(state.outputDirectory) {
+            @Override
+            public Include mergeSchemas(List<Include> schemas) {
+                return schemas.get(0);
+            }
+        });
+    }
+
+    @Benchmark
+    public void mergeSchemas(FragmentTreeState state, Blackhole blackhole) {
+        JsonSchemaMerger jsonSchemaMerger = new JsonSchemaMerger(state.outputDirectory);
+        for (List<Include> schemas : state.schemasToMerge) {
+            blackhole.consume(jsonSchemaMerger.mergeSchemas(schemas));
+        }
+    }
+
+    @Benchmark
+    public void writeApi(FragmentTreeState state) {
+        OpenAPIWriter.INSTANCE.writeApi(fileName -> new File(state.outputDirectory, fileName), state.api, "api.yaml");
+    }
+}
@@ -0,0 +1,192 @@
+package cc.dille.restdocs.openapi.plugin.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A generated snippets directory of {@code fragmentCount} fragments, laid out like the one written by the
+ * restdocs-openapi library: one directory per operation holding the fragment, the bodies and the schemas.
+ * <p>
+ * Ten operations share each path so that the aggregation has fragments and schemas to merge.
+ */
+@State(Scope.Benchmark)
+public class FragmentTreeState {
+
+    static final String SNIPPETS_DIRECTORY = "generated-snippets";
+
+    static final String OUTPUT_DIRECTORY = "openAPIDoc";
+
+    private static final String[] METHODS = {"get", "post", "put", "delete"};
+
+    private static final int FRAGMENTS_PER_PATH = 10;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int fragmentCount;
+
+    File buildDirectory;
+
+    File outputDirectory;
+
+    List<File> fragmentFiles;
+
+    List<OpenAPIFragment> fragments;
+
+    List<List<Include>> schemasToMerge;
+
+    OpenAPIApi api;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        buildDirectory = Files.createTempDirectory("restdocs-openapi-aggregation").toFile();
+        outputDirectory = new File(buildDirectory, OUTPUT_DIRECTORY);
+        outputDirectory.mkdirs();
+
+        File snippetsDirectory = new File(buildDirectory, SNIPPETS_DIRECTORY);
+        fragmentFiles = new ArrayList<>(fragmentCount);
+        for (int i = 0; i < fragmentCount; i++) {
+            fragmentFiles.add(writeOperation(new File(snippetsDirectory, "operation-" + i), i));
+        }
+
+        fragments = fragmentFiles.stream().map(OpenAPIFragment.Companion::fromFile).collect(toList());
+        schemasToMerge = schemasToMerge(fragments);
+        api = api(resources(fragments, new JsonSchemaMerger(outputDirectory)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(buildDirectory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Groups the fragments by path and merges them, the same way as {@link OpenAPIAggregate} does.
+     */
+    static List<ResourceGroup> resources(List<OpenAPIFragment> fragments, JsonSchemaMerger jsonSchemaMerger) {
+        Map<String, List<OpenAPIFragment>> fragmentsByPath = fragments.stream()
+                .collect(groupingBy(OpenAPIFragment::getPath, LinkedHashMap::new, toList()));
+        List<ResourceGroup> resourceGroups = new ArrayList<>(fragmentsByPath.size());
+        fragmentsByPath.forEach((path, fragmentsWithSamePath) -> {
+            List<OpenAPIResource> resources = new ArrayList<>();
+            resources.add(OpenAPIResource.Companion.fromFragments(fragmentsWithSamePath, jsonSchemaMerger));
+            resourceGroups.add(new ResourceGroup(path, resources));
+        });
+        return resourceGroups;
+    }
+
+    static OpenAPIApi api(List<ResourceGroup> resourceGroups) {
+        return new OpenAPIApi("3.0.1", "0.1.0", "Benchmark API", "Generated fragments", null, null, null,
+                "http://localhost:8080", null, resourceGroups);
+    }
+
+    /**
+     * The schemas that {@link OpenAPIResource.Companion#fromFragments} hands to the {@link JsonSchemaMerger}:
+     * one list per path, method and body.
+     */
+    private static List<List<Include>> schemasToMerge(List<OpenAPIFragment> fragments) {
+        Map<String, List<OpenAPIFragment>> fragmentsByMethod = fragments.stream()
+                .collect(groupingBy(f -> f.getPath() + " " + f.getMethod().getMethod(), LinkedHashMap::new, toList()));
+        List<List<Include>> schemas = new ArrayList<>();
+        fragmentsByMethod.values().forEach(fragmentsWithSameMethod -> {
+            List<Include> requestSchemas = fragmentsWithSameMethod.stream()
+                    .map(f -> f.getMethod().getRequestContent())
+                    .filter(Objects::nonNull)
+                    .flatMap(r -> r.getContents().stream())
+                    .map(Content::getSchema)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+            List<Include> responseSchemas = fragmentsWithSameMethod.stream()
+                    .flatMap(f -> f.getMethod().getResponses().stream())
+                    .flatMap(r -> r.getContents().stream())
+                    .map(Content::getSchema)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+            Stream.of(requestSchemas, responseSchemas).filter(l -> !l.isEmpty()).forEach(schemas::add);
+        });
+        return schemas;
+    }
+
+    private static File writeOperation(File directory, int index) throws IOException {
+        directory.mkdirs();
+        String operation = directory.getName();
+        String method = METHODS[index % METHODS.length];
+        boolean withRequestBody = method.equals("post") || method.equals("put");
+
+        StringBuilder fragment = new StringBuilder()
+                .append("/resources").append(index / FRAGMENTS_PER_PATH).append("/items/{id}:\n")
+                .append("  ").append(method).append(":\n")
+                .append("    summary: ").append(operation).append('\n')
+                .append("    operationId: ").append(operation).append('\n')
+                .append("    parameters:\n")
+                .append("      - name: id\n")
+                .append("        in: path\n")
+                .append("        description: The id of the item\n")
+                .append("        required: true\n")
+                .append("        schema:\n")
+                .append("          type: integer\n")
+                .append("        example: 12\n");
+        if (withRequestBody) {
+            fragment.append("    requestBody:\n")
+                    .append("      required: true\n")
+                    .append("      content:\n")
+                    .append("        application/json:\n")
+                    .append("          schema: !include '").append(operation).append("-schema-request.json'\n")
+                    .append("          example: !include '").append(operation).append("-request.json'\n");
+            write(new File(directory, operation + "-request.json"), body(index));
+            write(new File(directory, operation + "-schema-request.json"), schema(index));
+        }
+        fragment.append("    responses:\n")
+                .append("      200:\n")
+                .append("        description: The item\n")
+                .append("        content:\n")
+                .append("          application/hal+json:\n")
+                .append("            schema: !include '").append(operation).append("-schema-response.json'\n")
+                .append("            example: !include '").append(operation).append("-response.json'\n");
+        write(new File(directory, operation + "-response.json"), body(index));
+        write(new File(directory, operation + "-schema-response.json"), schema(index));
+
+        File fragmentFile = new File(directory, "openapi-resource.yaml");
+        write(fragmentFile, fragment.toString());
+        return fragmentFile;
+    }
+
+    private static String body(int index) {
+        return "{\n  \"name\" : \"item " + index + "\",\n  \"price\" : {\n    \"amount\" : " + index + ",\n    \"currency\" : \"EUR\"\n  },\n"
+                + "  \"tags\" : [ \"first\", \"second\" ],\n  \"attribute" + index % 3 + "\" : \"value\"\n}";
+    }
+
+    private static String schema(int index) {
+        return "{\n  \"type\" : \"object\",\n  \"properties\" : {\n"
+                + "    \"name\" : {\n      \"description\" : \"The name of the item\",\n      \"type\" : \"string\"\n    },\n"
+                + "    \"price\" : {\n      \"description\" : \"The price of the item\",\n      \"type\" : \"object\",\n      \"properties\" : {\n"
+                + "        \"amount\" : {\n          \"description\" : \"The amount\",\n          \"type\" : \"number\"\n        },\n"
+                + "        \"currency\" : {\n          \"description\" : \"The currency\",\n          \"type\" : \"string\"\n        }\n      }\n    },\n"
+                + "    \"tags\" : {\n      \"description\" : \"The tags\",\n      \"type\" : \"array\"\n    },\n"
+                + "    \"attribute" + index % 3 + "\" : {\n      \"description\" : \"An attribute\",\n      \"type\" : \"string\"\n    }\n  },\n"
+                + "  \"required\" : [ \"name\", \"attribute" + index % 3 + "\" ]\n}";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import java.io.File
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.io.Serializable
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+
+/**
+ * What an aggregation parsed and merged, kept for the next one.
+ *
+ * A fragment is taken from the manifest when its file and the schemas it includes did not change,
+ * and a resource when the fragments of its path did not change.
+ */
+class FragmentManifest(
+        val snippetsDirectory: String,
+        val fragments: Map<String, FragmentEntry> = emptyMap(),
+        val resources: Map<String, ResourceEntry> = emptyMap()) : Serializable {
+
+    fun write(file: File) {
+        file.parentFile.mkdirs()
+        ObjectOutputStream(file.outputStream().buffered()).use { it.writeObject(this) }
+    }
+
+    companion object {
+        private const val serialVersionUID = 1L
+
+        fun read(file: File, snippetsDirectory: File): FragmentManifest {
+            val manifest = try {
+                ObjectInputStream(file.inputStream().buffered()).use { it.readObject() as FragmentManifest }
+            } catch (e: Exception) {
+                // A missing or unreadable manifest is the same as an empty one
+                null
+            }
+            return manifest?.takeIf { it.snippetsDirectory == snippetsDirectory.absolutePath }
+                    ?: FragmentManifest(snippetsDirectory.absolutePath)
+        }
+    }
+}
+
+data class FileFingerprint(val size: Long, val lastModified: Long, val hash: String) : Serializable {
+    companion object {
+        private const val serialVersionUID = 1L
+
+        // An included schema which did not exist yet, so that its creation is a change too
+        val MISSING = FileFingerprint(-1, 0, "")
+    }
+}
+
+// files holds the fragment file and the schema files it includes
+data class FragmentEntry(val fragment: OpenAPIFragment, val files: Map<String, FileFingerprint>) : Serializable {
+    val hashes: Map<String, String>
+        get() = files.mapValues { it.value.hash }
+}
+
+// fragmentHashes holds the hashes of the fragments of the path, in aggregation order
+data class ResourceEntry(val fragmentHashes: List<Map<String, String>>, val resource: OpenAPIResource) : Serializable
+
+
+/**
+ * Reuses the fragments and the resources of the previous manifest, and collects those of the next one.
+ * Safe to use from parallel streams.
+ */
+internal class FragmentCache(private val previous: FragmentManifest, private val outputDirectory: File) {
+    private val fragments = ConcurrentHashMap<String, FragmentEntry>()
+    private val resources = ConcurrentHashMap<String, ResourceEntry>()
+
+    fun fragment(file: File): OpenAPIFragment {
+        val entry = previous.fragments[file.absolutePath]?.let { unchanged(it) } ?: parse(file)
+        fragments[file.absolutePath] = entry
+        return entry.fragment
+    }
+
+    // The files must have gone through fragment() first
+    fun resource(path: String, files: List<File>, merge: () -> OpenAPIResource): OpenAPIResource {
+        val fragmentHashes = files.map { fragments.getValue(it.absolutePath).hashes }
+        val entry = previous.resources[path]
+                ?.takeIf { it.fragmentHashes == fragmentHashes && schemasExist(it.resource) }
+                ?: ResourceEntry(fragmentHashes, merge())
+        resources[path] = entry
+        return entry.resource
+    }
+
+    fun manifest() = FragmentManifest(previous.snippetsDirectory, HashMap(fragments), HashMap(resources))
+
+    private fun parse(file: File): FragmentEntry {
+        val fragment = OpenAPIFragment.fromFile(file)
+        val files = listOf(file) + schemas(fragment.method).map { fileFromInclude(file.parentFile, it) }
+        return FragmentEntry(fragment, files.associate { it.absolutePath to fingerprint(it) })
+    }
+
+    private fun unchanged(entry: FragmentEntry): FragmentEntry? =
+            entry.files
+                    .mapValues { (location, fingerprint) -> unchanged(File(location), fingerprint) ?: return null }
+                    .let { FragmentEntry(entry.fragment, it) }
+
+    // Gives the up to date fingerprint of the file, or null if its content changed
+    private fun unchanged(file: File, fingerprint: FileFingerprint): FileFingerprint? {
+        if (fingerprint == FileFingerprint.MISSING) {
+            return fingerprint.takeUnless { file.isFile }
+        }
+        if (!file.isFile || file.length() != fingerprint.size) {
+            return null
+        }
+        if (file.lastModified() == fingerprint.lastModified) {
+            return fingerprint
+        }
+        return fingerprint(file).takeIf { it.hash == fingerprint.hash }
+    }
+
+    // A merged schema can be missing if its directory was cleaned without changing the fragments
+    private fun schemasExist(resource: OpenAPIResource) =
+            resource.methods.flatMap { schemas(it) }.all { fileFromInclude(outputDirectory, it).isFile }
+
+    private fun schemas(method: Method) =
+            (method.requestContent?.contents.orEmpty() + method.responses.flatMap { it.contents })
+                    .mapNotNull { it.schema }
+
+    private fun fingerprint(file: File) =
+            if (file.isFile) FileFingerprint(file.length(), file.lastModified(), hash(file)) else FileFingerprint.MISSING
+
+    private fun hash(file: File) =
+            MessageDigest.getInstance("SHA-256")
+                    .digest(file.readBytes())
+                    .joinToString("") { String.format("%02x", it) }
+}
@@ -0,0 +1,128 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import com.fasterxml.jackson.core.JsonFactory
+import com.fasterxml.jackson.core.JsonParseException
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import java.io.File
+import java.util.concurrent.ConcurrentHashMap
+
+
+/**
+ * Loads the included files, once per file whatever the location it is included from.
+ * JSON files are read with a streaming Jackson parser, which is faster than SnakeYAML and knows all the JSON escapes.
+ * The bodies are stored as `.json` whatever their content type, so a `.json` file which does not hold a JSON object
+ * or array, e.g. a text or XML body, is read by SnakeYAML like any other file, usually as a string.
+ *
+ * The loaded content is copied on each use, because SnakeYAML writes an alias when it represents the same
+ * map or list twice.
+ *
+ * The content of a retained include is dropped once it has been resolved as many times as it was retained,
+ * the others are kept until the resolver is.
+ */
+class IncludeResolver {
+    private val jsonFactory = JsonFactory()
+    private val contents = ConcurrentHashMap<String, Any>()
+    private val references = ConcurrentHashMap<String, Int>()
+
+    fun resolve(include: Include): Any? {
+        val key = key(include)
+        return copy(load(key)).also { release(key) }
+    }
+
+    // Counts the includes found in the map, so that they are dropped after their last use
+    fun retain(contentMap: Map<*, *>) {
+        mutableListOf<Include>()
+                .also { collectIncludes(contentMap, it) }
+                .forEach { references.merge(key(it), 1, Int::plus) }
+    }
+
+    // Loads all the includes found in the map in parallel, in the current fork-join pool
+    fun prefetch(contentMap: Map<*, *>) {
+        mutableSetOf<Include>()
+                .also { collectIncludes(contentMap, it) }
+                .parallelStream()
+                .forEach { load(key(it)) }
+    }
+
+    // We assume we stored the absolute location in the Include object (see ConstructInclude).
+    private fun key(include: Include) = File(include.location).canonicalPath
+
+    private fun load(key: String): Any =
+            contents.computeIfAbsent(key) { read(File(it)) }
+
+    private fun release(key: String) {
+        references.computeIfPresent(key) { _, count ->
+            if (count > 1) {
+                count - 1
+            } else {
+                contents.remove(key)
+                null
+            }
+        }
+    }
+
+    private fun read(file: File): Any =
+            when {
+                file.length() == 0L -> null
+                file.extension == "json" -> readJson(file) ?: readYaml(file)
+                else -> readYaml(file)
+            } ?: emptyMap<Any, Any>()
+
+    private fun readYaml(file: File): Any? =
+            file.inputStream().use { yaml().load<Any>(it) }
+
+    // Null when the file does not hold a JSON object or array
+    private fun readJson(file: File): Any? =
+            try {
+                jsonFactory.createParser(file).use { parser ->
+                    if (startsJsonStructure(parser)) readJsonValue(parser) else null
+                }
+            } catch (e: JsonParseException) {
+                null
+            }
+
+    private fun readJsonValue(parser: JsonParser): Any? =
+            when (parser.currentToken) {
+                JsonToken.START_OBJECT -> LinkedHashMap<String, Any?>().also { map ->
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        val name = parser.currentName
+                        parser.nextToken()
+                        map[name] = readJsonValue(parser)
+                    }
+                }
+                JsonToken.START_ARRAY -> ArrayList<Any?>().also { list ->
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        list.add(readJsonValue(parser))
+                    }
+                }
+                JsonToken.VALUE_STRING -> parser.text
+                JsonToken.VALUE_NUMBER_INT -> parser.numberValue
+                JsonToken.VALUE_NUMBER_FLOAT -> parser.doubleValue
+                JsonToken.VALUE_TRUE, JsonToken.VALUE_FALSE -> parser.booleanValue
+                else -> null
+            }
+
+    private fun collectIncludes(value: Any?, includes: MutableCollection<Include>) {
+        when (value) {
+            is Include -> includes.add(value)
+            is Map<*, *> -> value.values.forEach { collectIncludes(it, includes) }
+            is List<*> -> value.forEach { collectIncludes(it, includes) }
+        }
+    }
+
+    private fun copy(value: Any?): Any? =
+            when (value) {
+                is Map<*, *> -> value.entries.associateTo(LinkedHashMap()) { (k, v) -> k to copy(v) }
+                is List<*> -> value.mapTo(ArrayList(value.size)) { copy(it) }
+                else -> value
+            }
+}
+
+// Whether the first token of the parser opens a JSON object or array, leaving the parser on it
+internal fun startsJsonStructure(parser: JsonParser) =
+        try {
+            parser.nextToken().let { it == JsonToken.START_OBJECT || it == JsonToken.START_ARRAY }
+        } catch (e: JsonParseException) {
+            false
+        }
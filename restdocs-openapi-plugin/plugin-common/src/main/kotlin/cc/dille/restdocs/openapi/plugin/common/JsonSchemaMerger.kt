@@ -5,23 +5,58 @@ import com.fasterxml.jackson.databind.SerializationFeature
 import java.io.File
 
 
-open class JsonSchemaMerger(private val directory: File) {
+/**
+ * Merges the schemas of a content into a single one, written to the merged directory at the path of the first
+ * of them in the snippets directory, so that the aggregation does not write into its own input.
+ *
+ * Objects are merged key by key, recursively (so `properties` and `items` are),
+ * arrays are merged as sets (so `required` is), and for other values the last schema wins.
+ */
+open class JsonSchemaMerger @JvmOverloads constructor(private val directory: File, private val mergedDirectory: File = directory) {
     private val objectMapper = ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
 
     open fun mergeSchemas(schemas: List<Include>): Include {
-        val targetInclude = schemas
-                .sortedBy { it.location }
-                .first()
-                .let { Include(it.location.replace(".json", "-merged.json")) }
-
-        return schemas.reduce { i1, i2 ->
-            objectMapper.readValue(fileFromInclude(i1), Map::class.java)
-                    .let { objectMapper.readerForUpdating(it) }
-                    .let { it.readValue<Map<*,*>>(fileFromInclude(i2)) }
-                    .let { objectMapper.writeValue(fileFromInclude(targetInclude), it) }
-                    .let { targetInclude }
+        if (schemas.size == 1) {
+            return schemas.first()
         }
+
+        val targetFile = schemas
+                .map { fileFromInclude(it) }
+                .sortedBy { it.path }
+                .first()
+                .let { File(mergedDirectory, mergedPath(it)) }
+        targetFile.parentFile.mkdirs()
+
+        schemas.map { objectMapper.readValue(fileFromInclude(it), Map::class.java) }
+                .fold(mutableMapOf<Any?, Any?>()) { merged, schema -> mergeObjects(merged, schema) }
+                .let { objectMapper.writeValue(targetFile, it) }
+
+        return Include(targetFile.absolutePath)
     }
 
-    private fun fileFromInclude(include: Include) = File(directory, include.location)
+    // The path of the schema in the snippets directory, or only its name for a schema outside of it
+    private fun mergedPath(schema: File) =
+            schema.absoluteFile.relativeToOrNull(directory.absoluteFile)
+                    ?.takeUnless { it.path.startsWith("..") }
+                    .let { it?.path ?: schema.name }
+                    .replace(".json", "-merged.json")
+
+    private fun mergeObjects(target: MutableMap<Any?, Any?>, source: Map<*, *>): MutableMap<Any?, Any?> {
+        source.forEach { (key, value) -> target[key] = mergeValues(target[key], value) }
+        return target
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun mergeValues(target: Any?, source: Any?): Any? =
+            when {
+                target is MutableMap<*, *> && source is Map<*, *> -> mergeObjects(target as MutableMap<Any?, Any?>, source)
+                target is List<*> && source is List<*> -> (target + source).distinct()
+                else -> source
+            }
+
+    private fun fileFromInclude(include: Include) = fileFromInclude(directory, include)
 }
+
+// Includes read from fragments hold an absolute location (see ConstructInclude).
+internal fun fileFromInclude(directory: File, include: Include) =
+        File(include.location).let { if (it.isAbsolute) it else File(directory, include.location) }
@@ -12,7 +12,7 @@ import org.yaml.snakeyaml.nodes.Tag
 import org.yaml.snakeyaml.representer.Represent
 import org.yaml.snakeyaml.representer.Representer
 import java.io.File
-import java.io.FileInputStream
+import java.io.Serializable
 
 
 object OpenAPIParser {
@@ -20,36 +20,75 @@ object OpenAPIParser {
     val includeTag = Tag("!include")
 
     fun parseFragment(fragmentFile: File): Map<*, *> =
-            yaml(fragmentFile.parent).load<Map<Any, Any>>(fragmentFile.inputStream())
+            fragmentFile.inputStream().use { yaml(fragmentFile.parent).load<Map<Any, Any>>(it) }
 
     fun parseFragment(s: String, path: String? = null): Map<*, *> =
             yaml(path).load<Map<Any, Any>>(s)
 }
 
 object OpenAPIWriter {
-    fun writeApi(fileFactory: (String) -> File, api: OpenAPIApi, apiFileName: String) {
-        writeFile(targetFile = fileFactory(apiFileName),
-                contentMap = api.toMainFileMap()
-        )
+    // The schemas can only be deduplicated once the API is built as a whole, otherwise it is written path by path
+    @JvmOverloads
+    fun writeApi(fileFactory: (String) -> File, api: OpenAPIApi, apiFileName: String, includeResolver: IncludeResolver = IncludeResolver(),
+                 deduplicateSchemas: Boolean = false) {
+        val targetFile = fileFactory(apiFileName)
+        if (deduplicateSchemas) {
+            writeFile(targetFile = targetFile,
+                    contentMap = SchemaDeduplicator(includeResolver).deduplicate(api.toMainFileMap()),
+                    includeResolver = includeResolver
+            )
+        } else {
+            targetFile.bufferedWriter().use { writer ->
+                OpenAPIEventWriter(writer, includeResolver).write(api)
+            }
+        }
+    }
+
+    @JvmOverloads
+    fun writeFile(targetFile: File, contentMap: Map<*, *>, includeResolver: IncludeResolver = IncludeResolver()) {
+        includeResolver.prefetch(contentMap)
+        targetFile.writer().use { writer ->
+            yaml(includeResolver = includeResolver).dump(contentMap, writer)
+        }
+    }
+
+    @JvmOverloads
+    fun writeJsonApi(fileFactory: (String) -> File, api: OpenAPIApi, apiFileName: String, includeResolver: IncludeResolver = IncludeResolver(),
+                     deduplicateSchemas: Boolean = false) {
+        val targetFile = fileFactory(apiFileName)
+        if (deduplicateSchemas) {
+            writeJsonFile(targetFile = targetFile,
+                    contentMap = SchemaDeduplicator(includeResolver).deduplicate(api.toMainFileMap()),
+                    includeResolver = includeResolver
+            )
+        } else {
+            targetFile.bufferedWriter().use { writer ->
+                OpenAPIJsonWriter(writer, includeResolver).write(api)
+            }
+        }
     }
 
-    fun writeFile(targetFile: File, contentMap: Map<*, *>) {
-        targetFile.writer().let { writer ->
-            yaml().dump(contentMap, writer)
+    @JvmOverloads
+    fun writeJsonFile(targetFile: File, contentMap: Map<*, *>, includeResolver: IncludeResolver = IncludeResolver()) {
+        targetFile.bufferedWriter().use { writer ->
+            OpenAPIJsonWriter(writer, includeResolver).write(contentMap)
         }
     }
 }
 
-private fun yaml(path: String? = null) = Yaml(IncludeConstructor(path), IncludeRepresenter(),
+internal fun yaml(path: String? = null, includeResolver: IncludeResolver = IncludeResolver()) =
+        Yaml(IncludeConstructor(path), IncludeRepresenter(includeResolver), dumperOptions())
+
+internal fun dumperOptions() =
         DumperOptions().apply {
             defaultFlowStyle = DumperOptions.FlowStyle.BLOCK
             defaultScalarStyle = PLAIN
             isAllowReadOnlyProperties = true
-        })
+        }
 
-data class Include(val location: String)
+data class Include(val location: String) : Serializable
 
-internal class IncludeRepresenter : Representer() {
+internal class IncludeRepresenter(private val includeResolver: IncludeResolver) : Representer() {
     init {
         this.representers[Include::class.java] = RepresentInclude()
     }
@@ -57,11 +96,7 @@ internal class IncludeRepresenter : Representer() {
     private inner class RepresentInclude : Represent {
 
         override fun representData(data: Any): Node {
-            // We assume we stored the absolute location in the Include object (see ConstructInclude).
-            val fip = FileInputStream(File((data as Include).location))
-            val y = yaml().load<Any>(fip)
-
-            return represent(y)
+            return represent(includeResolver.resolve(data as Include))
             // representScalar(includeTag, (data as Include).location)
         }
     }
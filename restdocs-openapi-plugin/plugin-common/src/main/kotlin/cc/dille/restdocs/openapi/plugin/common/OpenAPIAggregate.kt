@@ -1,6 +1,11 @@
 package cc.dille.restdocs.openapi.plugin.common
 
 import java.io.File
+import java.io.Serializable
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinPool
+import java.util.stream.Collectors.toList
 
 
 class OpenAPIAggregate(
@@ -16,29 +21,74 @@ class OpenAPIAggregate(
         private var outputDirectory: String,
         private var snippetsDirectory: String,
         private var outputFileNamePrefix: String,
-        private var buildDir: File) {
+        private var buildDir: File,
+        private var parallelism: Int,
+        private var incremental: Boolean,
+        private var deduplicateSchemas: Boolean,
+        private var outputFormat: String) : Serializable {
 
     var outputDirectoryFile: File = File(buildDir, outputDirectory)
     var snippetsDirectoryFile: File = File(this.buildDir, snippetsDirectory)
+    var manifestFile: File = File(buildDir, "tmp/openapidoc/fragment-manifest.ser")
+    var mergedSchemasDirectoryFile: File = File(buildDir, "tmp/openapidoc/merged-schemas")
+
+    companion object {
+        private const val serialVersionUID = 1L
+
+        // Written by the tests whose last snippets could not be written in the background, see SnippetFileWriter of restdocs-openapi
+        private const val WRITE_FAILURE_FILE = "restdocs-openapi-write-failure.txt"
+    }
 
 
     fun aggregateFragments() {
+        require(parallelism > 0) { "parallelism must be positive, was $parallelism" }
+        val fileNameSuffixes = OutputFormat.of(outputFormat).fileNameSuffixes
         outputDirectoryFile.mkdirs()
+        checkSnippetWrites()
 
 //        copyBodyJsonFilesToOutput()
 
-        val openAPIFragments = snippetsDirectoryFile.walkTopDown()
-                .filter { it.name is String && it.name.startsWith("openapi-resource") }
-                .map { OpenAPIFragment.fromFile(it) }
-                .toList()
+        // The parallel streams run in the pool they are started from.
+        // They are ordered, so the output is the same whatever the parallelism.
+        val pool = ForkJoinPool(parallelism)
+        try {
+            pool.submit(Callable {
+                val fragmentCache = if (incremental) FragmentCache(FragmentManifest.read(manifestFile, snippetsDirectoryFile), outputDirectoryFile) else null
 
-        writeFiles(openAPIFragments, ".yaml")
+                val openAPIFragments = snippetsDirectoryFile.walkTopDown()
+                        .filter { it.name is String && it.name.startsWith("openapi-resource") }
+                        .toList()
+                        .parallelStream()
+                        .map { it to (fragmentCache?.fragment(it) ?: OpenAPIFragment.fromFile(it)) }
+                        .collect(toList())
+
+                writeFiles(openAPIFragments, fragmentCache, fileNameSuffixes)
+
+                fragmentCache?.manifest()?.write(manifestFile)
+            }).get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        } finally {
+            pool.shutdown()
+        }
     }
 
 
-    private fun writeFiles(openAPIFragments: List<OpenAPIFragment>, fileNameSuffix: String) {
-        val openAPIApi = openAPIFragments.groupBy { it.path }
-                .map { (_, fragmentsWithSamePath) -> OpenAPIResource.fromFragments(fragmentsWithSamePath, JsonSchemaMerger(outputDirectoryFile)) }
+    private fun checkSnippetWrites() {
+        val failureFile = File(snippetsDirectoryFile, WRITE_FAILURE_FILE)
+        check(!failureFile.exists()) { "The tests could not write all their snippets, see $failureFile" }
+    }
+
+    private fun writeFiles(openAPIFragments: List<Pair<File, OpenAPIFragment>>, fragmentCache: FragmentCache?, fileNameSuffixes: List<String>) {
+        val openAPIApi = openAPIFragments.groupBy { (_, fragment) -> fragment.path }
+                .entries
+                .toList()
+                .parallelStream()
+                .map { (path, fragmentsWithSamePath) ->
+                    val merge = { OpenAPIResource.fromFragments(fragmentsWithSamePath.map { it.second }, JsonSchemaMerger(snippetsDirectoryFile, mergedSchemasDirectoryFile)) }
+                    fragmentCache?.resource(path, fragmentsWithSamePath.map { it.first }, merge) ?: merge()
+                }
+                .collect(toList())
                 .let { openAPIResources ->
                     openAPIResources
                             .groupBy { it.path }
@@ -57,11 +107,14 @@ class OpenAPIAggregate(
                             it)
                 }
 
-        OpenAPIWriter.writeApi(
-                fileFactory = { filename -> File(File(buildDir, outputDirectory), filename) },
-                api = openAPIApi,
-                apiFileName = "$outputFileNamePrefix$fileNameSuffix"
-        )
+        val fileFactory = { filename: String -> File(File(buildDir, outputDirectory), filename) }
+        fileNameSuffixes.forEach { fileNameSuffix ->
+            if (fileNameSuffix == ".json") {
+                OpenAPIWriter.writeJsonApi(fileFactory, openAPIApi, "$outputFileNamePrefix$fileNameSuffix", deduplicateSchemas = deduplicateSchemas)
+            } else {
+                OpenAPIWriter.writeApi(fileFactory, openAPIApi, "$outputFileNamePrefix$fileNameSuffix", deduplicateSchemas = deduplicateSchemas)
+            }
+        }
     }
 
     /* private fun copyBodyJsonFilesToOutput() {
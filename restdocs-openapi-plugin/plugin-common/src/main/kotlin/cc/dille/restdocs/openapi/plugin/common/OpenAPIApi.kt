@@ -1,6 +1,7 @@
 package cc.dille.restdocs.openapi.plugin.common
 
 import java.io.File
+import java.io.Serializable
 
 data class OpenAPIApi(var openAPIVersion: String,
                       var infoVersion: String,
@@ -11,9 +12,12 @@ data class OpenAPIApi(var openAPIVersion: String,
                       var infoContactUrl: String? = null,
                       var serverUrl: String? = null,
                       var serverDescription: String? = null,
-                      private val resourceGroups: List<ResourceGroup>) {
+                      val resourceGroups: List<ResourceGroup>) {
 
-    fun toMainFileMap() =
+    fun toMainFileMap() = toHeaderMap().plus("paths" to resourceGroups.toOpenAPIMap())
+
+    // Everything but the paths
+    fun toHeaderMap() =
             listOfNotNull(
                     "openapi" to openAPIVersion,
                     "info" to listOfNotNull(
@@ -32,8 +36,7 @@ data class OpenAPIApi(var openAPIVersion: String,
                                 serverDescription?.let { "description" to it },
                                 serverUrl?.let { "url" to it }
                         ).toMap())
-                    else null,
-                    "paths" to resourceGroups.toOpenAPIMap()
+                    else null
             ).toMap()
 }
 
@@ -46,7 +49,7 @@ data class ResourceGroup(val path: String, private val openAPIResources: List<Op
             openAPIResources.flatMap { it.toOpenAPIMap().toList() }.toMap()
 }
 
-data class Parameter(val name: String, val in_: String, val description: String?, val required: Boolean?, val type: String?, val example: String?) : ToOpenAPIMap {
+data class Parameter(val name: String, val in_: String, val description: String?, val required: Boolean?, val type: String?, val example: String?) : ToOpenAPIMap, Serializable {
     override fun toOpenAPIMap(): Map<*, *> =
             listOfNotNull("name" to name,
                     "in" to in_,
@@ -65,7 +68,7 @@ fun List<ToOpenAPIMap>.toOpenAPIMap(): Map<*, *> =
         this.flatMap { it.toOpenAPIMap().toList() }.toMap()
 
 data class RequestContent(val required: Boolean = false,
-                          val contents: List<Content> = emptyList()) : ToOpenAPIMap {
+                          val contents: List<Content> = emptyList()) : ToOpenAPIMap, Serializable {
 
     override fun toOpenAPIMap(): Map<*, *> {
         return if (!contents.isEmpty()) mapOf("requestBody" to mapOf("required" to required, "content" to contents.toOpenAPIMap())) else emptyMap<String, String>()
@@ -74,7 +77,7 @@ data class RequestContent(val required: Boolean = false,
 
 data class Content(val contentType: String,
                    val schema: Include? = null,
-                   val example: Include? = null) : ToOpenAPIMap {
+                   val example: Include? = null) : ToOpenAPIMap, Serializable {
 
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(contentType to
@@ -89,7 +92,7 @@ data class Response(val status: Int,
                     val description: String? = null,
                     val contents: List<Content> = emptyList(),
                     val headers: List<ResponseHeader> = emptyList(),
-                    val links: List<Link> = emptyList()) : ToOpenAPIMap {
+                    val links: List<Link> = emptyList()) : ToOpenAPIMap, Serializable {
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(status to mapOf("description" to description)
                     .plus(headers.toOpenAPIMap("headers"))
@@ -103,7 +106,7 @@ data class Method(val method: String,
                   val operationId: String? = null,
                   val parameters: List<Parameter> = emptyList(),
                   val requestContent: RequestContent? = null,
-                  val responses: List<Response> = emptyList()) : ToOpenAPIMap {
+                  val responses: List<Response> = emptyList()) : ToOpenAPIMap, Serializable {
 
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(method to listOfNotNull(
@@ -115,7 +118,7 @@ data class Method(val method: String,
                     .plus(responses.toOpenAPIMap("responses")))
 }
 
-data class ResponseHeader(val name: String, val description: String?, val example: String? = null) : ToOpenAPIMap {
+data class ResponseHeader(val name: String, val description: String?, val example: String? = null) : ToOpenAPIMap, Serializable {
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(name to listOfNotNull(
                     description?.let { "description" to it },
@@ -123,7 +126,7 @@ data class ResponseHeader(val name: String, val description: String?, val exampl
             ).toMap())
 }
 
-data class LinkParameter(val name: String, val location: String) : ToOpenAPIMap {
+data class LinkParameter(val name: String, val location: String) : ToOpenAPIMap, Serializable {
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(name to location)
 }
@@ -131,7 +134,7 @@ data class LinkParameter(val name: String, val location: String) : ToOpenAPIMap
 data class Link(val rel: String,
                 val operationId: String,
                 val description: String? = null,
-                val parameters: List<LinkParameter> = emptyList()) : ToOpenAPIMap {
+                val parameters: List<LinkParameter> = emptyList()) : ToOpenAPIMap, Serializable {
 
     override fun toOpenAPIMap(): Map<*, *> =
             mapOf(rel to
@@ -143,7 +146,7 @@ data class Link(val rel: String,
             )
 }
 
-data class OpenAPIResource(val path: String, val methods: List<Method> = emptyList()) : ToOpenAPIMap {
+data class OpenAPIResource(val path: String, val methods: List<Method> = emptyList()) : ToOpenAPIMap, Serializable {
     override fun toOpenAPIMap(): Map<*, *> =
             methods.flatMap { it.toOpenAPIMap().toList() }.toMap().let { if (path.isEmpty()) it else mapOf(path to it) }
 
@@ -210,7 +213,7 @@ data class OpenAPIResource(val path: String, val methods: List<Method> = emptyLi
 
 data class OpenAPIFragment(val id: String,
                            val path: String,
-                           val method: Method) {
+                           val method: Method) : Serializable {
 
     companion object {
         fun fromYamlMap(id: String, yamlMap: Map<*, *>): OpenAPIFragment {
@@ -0,0 +1,93 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import org.yaml.snakeyaml.DumperOptions.FlowStyle.BLOCK
+import org.yaml.snakeyaml.emitter.Emitter
+import org.yaml.snakeyaml.events.DocumentEndEvent
+import org.yaml.snakeyaml.events.DocumentStartEvent
+import org.yaml.snakeyaml.events.ImplicitTuple
+import org.yaml.snakeyaml.events.MappingEndEvent
+import org.yaml.snakeyaml.events.MappingStartEvent
+import org.yaml.snakeyaml.events.ScalarEvent
+import org.yaml.snakeyaml.events.SequenceEndEvent
+import org.yaml.snakeyaml.events.SequenceStartEvent
+import org.yaml.snakeyaml.events.StreamEndEvent
+import org.yaml.snakeyaml.events.StreamStartEvent
+import org.yaml.snakeyaml.nodes.MappingNode
+import org.yaml.snakeyaml.nodes.Node
+import org.yaml.snakeyaml.nodes.NodeId
+import org.yaml.snakeyaml.nodes.ScalarNode
+import org.yaml.snakeyaml.nodes.SequenceNode
+import org.yaml.snakeyaml.nodes.Tag
+import org.yaml.snakeyaml.resolver.Resolver
+import java.io.Writer
+
+
+/**
+ * Writes the API as YAML events, one path at a time, instead of dumping it as a whole.
+ *
+ * Only the map of the path being written and the files it includes are held in memory:
+ * the included files are dropped after their last use.
+ * The output is the same as the one of [OpenAPIWriter.writeFile] for [OpenAPIApi.toMainFileMap].
+ */
+internal class OpenAPIEventWriter(writer: Writer, private val includeResolver: IncludeResolver) {
+    private val dumperOptions = dumperOptions()
+    private val emitter = Emitter(writer, dumperOptions)
+    private val resolver = Resolver()
+    private val representer = IncludeRepresenter(includeResolver).apply {
+        defaultFlowStyle = dumperOptions.defaultFlowStyle
+        defaultScalarStyle = dumperOptions.defaultScalarStyle
+    }
+
+    fun write(api: OpenAPIApi) {
+        api.resourceGroups.forEach { includeResolver.retain(it.toOpenAPIMap()) }
+
+        emitter.emit(StreamStartEvent(null, null))
+        emitter.emit(DocumentStartEvent(null, null, dumperOptions.isExplicitStart, dumperOptions.version, dumperOptions.tags))
+        emitter.emit(MappingStartEvent(null, Tag.MAP.value, true, null, null, BLOCK))
+
+        api.toHeaderMap().forEach { (key, value) -> writeEntry(key, value) }
+
+        writeValue("paths")
+        emitter.emit(MappingStartEvent(null, Tag.MAP.value, true, null, null, BLOCK))
+        api.resourceGroups.forEach { resourceGroup ->
+            resourceGroup.toOpenAPIMap().also { includeResolver.prefetch(it) }.forEach { (key, value) -> writeEntry(key, value) }
+        }
+        emitter.emit(MappingEndEvent(null, null))
+
+        emitter.emit(MappingEndEvent(null, null))
+        emitter.emit(DocumentEndEvent(null, null, dumperOptions.isExplicitEnd))
+        emitter.emit(StreamEndEvent(null, null))
+    }
+
+    private fun writeEntry(key: Any?, value: Any?) {
+        writeValue(key)
+        writeValue(value)
+    }
+
+    private fun writeValue(value: Any?) = writeNode(representer.represent(value))
+
+    // Emits the events of the node as the SnakeYAML serializer does, but without anchors
+    private fun writeNode(node: Node) {
+        when (node) {
+            is ScalarNode -> emitter.emit(ScalarEvent(null, node.tag.value,
+                    ImplicitTuple(node.tag == resolver.resolve(NodeId.scalar, node.value, true),
+                            node.tag == resolver.resolve(NodeId.scalar, node.value, false)),
+                    node.value, null, null, node.style))
+            is SequenceNode -> {
+                emitter.emit(SequenceStartEvent(null, node.tag.value,
+                        node.tag == resolver.resolve(NodeId.sequence, null, true), null, null, node.flowStyle))
+                node.value.forEach { writeNode(it) }
+                emitter.emit(SequenceEndEvent(null, null))
+            }
+            is MappingNode -> {
+                emitter.emit(MappingStartEvent(null, node.tag.value,
+                        node.tag == resolver.resolve(NodeId.mapping, null, true), null, null, node.flowStyle))
+                node.value.forEach {
+                    writeNode(it.keyNode)
+                    writeNode(it.valueNode)
+                }
+                emitter.emit(MappingEndEvent(null, null))
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import java.io.File
+import java.io.Writer
+
+
+/**
+ * Writes the API as JSON with a streaming generator, one path at a time.
+ *
+ * The included JSON objects and arrays are copied token by token, the other included files, e.g. the text bodies
+ * stored as `.json`, are read by the [IncludeResolver].
+ */
+internal class OpenAPIJsonWriter(writer: Writer, private val includeResolver: IncludeResolver) {
+    private val generator = objectMapper.factory.createGenerator(writer).useDefaultPrettyPrinter()
+
+    fun write(api: OpenAPIApi) {
+        generator.writeStartObject()
+        api.toHeaderMap().forEach { (key, value) -> writeEntry(key, value) }
+        generator.writeObjectFieldStart("paths")
+        api.resourceGroups.forEach { resourceGroup ->
+            resourceGroup.toOpenAPIMap().forEach { (key, value) -> writeEntry(key, value) }
+        }
+        generator.writeEndObject()
+        generator.writeEndObject()
+        generator.flush()
+    }
+
+    fun write(contentMap: Map<*, *>) {
+        writeValue(contentMap)
+        generator.flush()
+    }
+
+    private fun writeEntry(key: Any?, value: Any?) {
+        generator.writeFieldName(key.toString())
+        writeValue(value)
+    }
+
+    private fun writeValue(value: Any?) {
+        when (value) {
+            is Include -> writeInclude(value)
+            is Map<*, *> -> {
+                generator.writeStartObject()
+                value.forEach { (key, value) -> writeEntry(key, value) }
+                generator.writeEndObject()
+            }
+            is List<*> -> {
+                generator.writeStartArray()
+                value.forEach { writeValue(it) }
+                generator.writeEndArray()
+            }
+            else -> generator.writeObject(value)
+        }
+    }
+
+    // We assume we stored the absolute location in the Include object (see ConstructInclude).
+    private fun writeInclude(include: Include) {
+        val file = File(include.location)
+        if (file.extension != "json") {
+            writeValue(includeResolver.resolve(include))
+            return
+        }
+        objectMapper.factory.createParser(file).use { parser ->
+            if (startsJsonStructure(parser)) {
+                generator.copyCurrentStructure(parser)
+            } else {
+                writeValue(includeResolver.resolve(include))
+            }
+        }
+    }
+
+    companion object {
+        private val objectMapper = ObjectMapper()
+    }
+}
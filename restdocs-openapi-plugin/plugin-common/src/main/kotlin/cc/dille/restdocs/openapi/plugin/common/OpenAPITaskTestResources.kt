@@ -1,5 +1,6 @@
 package cc.dille.restdocs.openapi.plugin.common
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import org.amshove.kluent.`should be true`
 import org.amshove.kluent.`should exist`
 import org.junit.Before
@@ -28,6 +29,10 @@ abstract class OpenAPITaskTestResources {
     protected var serverUrl: String? = null
     protected var serverDescription: String? = null
     protected var outputFileNamePrefix = "api"
+    protected var outputFormat = "yaml"
+    protected var parallelism = Runtime.getRuntime().availableProcessors()
+    protected var incremental = true
+    protected var deduplicateSchemas = false
 
     protected lateinit var pluginClasspath: List<File>
 
@@ -51,6 +56,10 @@ abstract class OpenAPITaskTestResources {
         serverUrl = "example.org"
         serverDescription = "Default server"
         outputFileNamePrefix = "index"
+        outputFormat = "both"
+        parallelism = 2
+        incremental = false
+        deduplicateSchemas = true
     }
 
     protected fun thenGroupFileGenerated() {
@@ -81,6 +90,15 @@ abstract class OpenAPITaskTestResources {
         }
     }
 
+    protected fun thenJsonFileGenerated() {
+        val apiFile = File(testProjectDir.root, "build/openAPIdoc/${outputFileNamePrefix}.json")
+        apiFile.`should exist`()
+        ObjectMapper().readValue(apiFile, Map::class.java).also { api ->
+            (api["openapi"] == openAPIVersion).`should be true`()
+            (api["paths"] as Map<*, *>).keys.containsAll(listOf("/", "/carts", "/carts/{cartId}")).`should be true`()
+        }
+    }
+
     protected fun thenOpenAPIFileExistsWithHeaders(): File {
         val apiFile = File(testProjectDir.root, "build/openAPIdoc/${outputFileNamePrefix}.yaml")
         apiFile.`should exist`()
@@ -208,6 +226,7 @@ abstract class OpenAPITaskTestResources {
 
         thenTaskSucceeded().`should be true`()
         thenGroupFileGenerated()
+        thenJsonFileGenerated()
     }
 
 
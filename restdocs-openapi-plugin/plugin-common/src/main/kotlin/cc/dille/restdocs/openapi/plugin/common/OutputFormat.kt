@@ -0,0 +1,14 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+
+enum class OutputFormat(val fileNameSuffixes: List<String>) {
+    YAML(listOf(".yaml")),
+    JSON(listOf(".json")),
+    BOTH(listOf(".yaml", ".json"));
+
+    companion object {
+        fun of(name: String) =
+                values().find { it.name.equals(name, ignoreCase = true) }
+                        ?: throw IllegalArgumentException("outputFormat must be one of yaml, json or both, was $name")
+    }
+}
@@ -17,4 +17,11 @@ open class PluginDefaultValues {
     var snippetsDirectory = "generated-snippets"
 
     var outputFileNamePrefix = "api"
+    // yaml, json or both
+    var outputFormat = "yaml"
+
+    var parallelism = Runtime.getRuntime().availableProcessors()
+    var incremental = true
+
+    var deduplicateSchemas = false
 }
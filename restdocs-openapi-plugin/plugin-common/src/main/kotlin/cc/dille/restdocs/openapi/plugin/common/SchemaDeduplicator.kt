@@ -0,0 +1,82 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import java.math.BigInteger
+import java.security.MessageDigest
+import java.util.IdentityHashMap
+
+
+/**
+ * Moves the schemas found more than once in the API into `components/schemas`, where the operations refer to them with `$ref`.
+ *
+ * The schemas of the contents are compared as a whole, along with the object schemas nested in them.
+ * Two schemas are the same when they have the same keys and values, whatever their order.
+ * A schema is named after its hash, so it keeps its name as long as it does not change.
+ */
+class SchemaDeduplicator(private val includeResolver: IncludeResolver) {
+    // The hashes of the schemas that can be moved, and how many times each one is found
+    private val hashes = IdentityHashMap<Map<*, *>, String>()
+    private val occurrences = mutableMapOf<String, Int>()
+
+    private val components = sortedMapOf<String, Any?>()
+
+    fun deduplicate(contentMap: Map<*, *>): Map<*, *> {
+        val resolvedMap = resolveSchemas(contentMap) as Map<*, *>
+        if (occurrences.values.none { it > 1 }) {
+            return resolvedMap
+        }
+        return (replaceSchemas(resolvedMap) as Map<*, *>)
+                .plus("components" to mapOf("schemas" to components))
+    }
+
+    // Loads the included schemas, and counts the schemas in them
+    private fun resolveSchemas(value: Any?, key: Any? = null): Any? =
+            when (value) {
+                is Include -> if (key == "schema") includeResolver.resolve(value).also { countSchemas(it, true) } else value
+                is Map<*, *> -> value.entries.associateTo(LinkedHashMap()) { (k, v) -> k to resolveSchemas(v, k) }
+                is List<*> -> value.map { resolveSchemas(it) }
+                else -> value
+            }
+
+    private fun replaceSchemas(value: Any?): Any? =
+            when (value) {
+                is Map<*, *> -> value.entries.associateTo(LinkedHashMap()) { (k, v) -> k to replaceSchemas(v) }
+                        .let { replaced -> reference(value, replaced) ?: replaced }
+                is List<*> -> value.map { replaceSchemas(it) }
+                else -> value
+            }
+
+    private fun reference(schema: Map<*, *>, replacedSchema: Map<*, *>): Map<*, *>? {
+        val hash = hashes[schema]?.takeIf { occurrences.getValue(it) > 1 } ?: return null
+        val name = "schema-${hash.take(16)}"
+        components[name] = replacedSchema
+        return mapOf("\$ref" to "#/components/schemas/$name")
+    }
+
+    // Gives the canonical form of the value, in which the maps are replaced by their hash
+    private fun countSchemas(value: Any?, root: Boolean = false): String =
+            when (value) {
+                is Map<*, *> -> value.entries
+                        .map { (k, v) -> "$k=${countSchemas(v)}" }
+                        .sorted()
+                        .joinToString(",", "{", "}")
+                        .let { hash(it) }
+                        .also { hash ->
+                            if (root || isObjectSchema(value)) {
+                                hashes[value] = hash
+                                occurrences.merge(hash, 1, Int::plus)
+                            }
+                        }
+                is List<*> -> value.joinToString(",", "[", "]") { countSchemas(it) }
+                is String -> "\"${value.replace("\"", "\\\"")}\""
+                else -> value.toString()
+            }
+
+    // Empty object schemas are not worth a reference
+    private fun isObjectSchema(schema: Map<*, *>) =
+            schema["type"] == "object" && (schema["properties"] as? Map<*, *>).orEmpty().isNotEmpty()
+
+    private fun hash(canonical: String) =
+            MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toByteArray())
+                    .let { BigInteger(1, it).toString(16).padStart(64, '0') }
+}
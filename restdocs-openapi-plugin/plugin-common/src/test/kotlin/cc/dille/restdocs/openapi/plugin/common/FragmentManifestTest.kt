@@ -0,0 +1,94 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import org.amshove.kluent.`should be equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+
+class FragmentManifestTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    private lateinit var fragmentFile: File
+
+    private lateinit var manifest: FragmentManifest
+
+    @Test
+    fun `should reuse unchanged fragment`() {
+        givenFragmentFile()
+        givenManifestWithSummary("cached summary")
+
+        val fragment = FragmentCache(manifest, tempFolder.root).fragment(fragmentFile)
+
+        fragment.method.summary `should equal` "cached summary"
+    }
+
+    @Test
+    fun `should parse changed fragment`() {
+        givenFragmentFile()
+        givenManifestWithSummary("cached summary")
+        fragmentFile.writeText(fragmentFile.readText().replace("summary: get-payment", "summary: new-payment"))
+
+        val fragment = FragmentCache(manifest, tempFolder.root).fragment(fragmentFile)
+
+        fragment.method.summary `should equal` "new-payment"
+    }
+
+    @Test
+    fun `should parse fragment when included schema appeared`() {
+        givenFragmentFileWithSchema()
+        givenManifestWithSummary("cached summary")
+        File(tempFolder.root, "payment-integration-get-schema-response.json").writeText("{}")
+
+        val fragment = FragmentCache(manifest, tempFolder.root).fragment(fragmentFile)
+
+        fragment.method.summary `should equal` "get-payment"
+    }
+
+    @Test
+    fun `should read written manifest`() {
+        givenFragmentFile()
+        givenManifestWithSummary("cached summary")
+        val manifestFile = File(tempFolder.root, "tmp/manifest.ser")
+
+        manifest.write(manifestFile)
+
+        FragmentManifest.read(manifestFile, tempFolder.root).fragments `should equal` manifest.fragments
+    }
+
+    @Test
+    fun `should ignore manifest of other snippets directory`() {
+        givenFragmentFile()
+        givenManifestWithSummary("cached summary")
+        val manifestFile = File(tempFolder.root, "tmp/manifest.ser")
+
+        manifest.write(manifestFile)
+
+        FragmentManifest.read(manifestFile, tempFolder.newFolder()).fragments.size `should be equal to` 0
+    }
+
+    private fun givenFragmentFile() {
+        fragmentFile = File(tempFolder.root, "openapi-resource.yaml").apply {
+            writeText(object : FragmentFixtures {}.rawFragmentWithoutSchema())
+        }
+    }
+
+    private fun givenFragmentFileWithSchema() {
+        fragmentFile = File(tempFolder.root, "openapi-resource.yaml").apply {
+            writeText(object : FragmentFixtures {}.rawFragment())
+        }
+    }
+
+    private fun givenManifestWithSummary(summary: String) {
+        val cache = FragmentCache(FragmentManifest(tempFolder.root.absolutePath), tempFolder.root)
+        cache.fragment(fragmentFile)
+        manifest = cache.manifest().let { parsed ->
+            FragmentManifest(parsed.snippetsDirectory, parsed.fragments.mapValues { (_, entry) ->
+                entry.copy(fragment = entry.fragment.copy(method = entry.fragment.method.copy(summary = summary)))
+            })
+        }
+    }
+}
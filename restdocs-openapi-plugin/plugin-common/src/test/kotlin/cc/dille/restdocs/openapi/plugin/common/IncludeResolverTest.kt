@@ -0,0 +1,68 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should not be`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+
+class IncludeResolverTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    private val includeResolver = IncludeResolver()
+
+    @Test
+    fun `should read file once whatever its location`() {
+        val file = File(tempFolder.newFolder("operation"), "operation-response.json").apply { writeText("""{ "name" : "first" }""") }
+        val first = includeResolver.resolve(Include(file.absolutePath))
+        file.writeText("""{ "name" : "second" }""")
+
+        val second = includeResolver.resolve(Include("${tempFolder.root.absolutePath}/operation/../operation/operation-response.json"))
+
+        second `should equal` first
+        second `should not be` first
+    }
+
+    @Test
+    fun `should drop retained file after its last use`() {
+        val file = tempFolder.newFile("operation-response.json").apply { writeText("""{ "name" : "first" }""") }
+        includeResolver.retain(mapOf("first" to Include(file.absolutePath), "second" to Include(file.absolutePath)))
+        includeResolver.resolve(Include(file.absolutePath))
+        includeResolver.resolve(Include(file.absolutePath))
+        file.writeText("""{ "name" : "second" }""")
+
+        val content = includeResolver.resolve(Include(file.absolutePath))
+
+        content `should equal` mapOf("name" to "second")
+    }
+
+    @Test
+    fun `should read JSON escapes`() {
+        val file = tempFolder.newFile("operation-response.json").apply { writeText("""{ "url" : "http:\/\/example.org", "ids" : [ 1, 2.5 ] }""") }
+
+        val content = includeResolver.resolve(Include(file.absolutePath))
+
+        content `should equal` mapOf("url" to "http://example.org", "ids" to listOf(1, 2.5))
+    }
+
+    @Test
+    fun `should read text and XML bodies as strings`() {
+        val textFile = tempFolder.newFile("text-response.json").apply { writeText("The item was created") }
+        val xmlFile = tempFolder.newFile("xml-response.json").apply { writeText("<item><name>value</name></item>") }
+
+        includeResolver.resolve(Include(textFile.absolutePath)) `should equal` "The item was created"
+        includeResolver.resolve(Include(xmlFile.absolutePath)) `should equal` "<item><name>value</name></item>"
+    }
+
+    @Test
+    fun `should read YAML and empty files`() {
+        val yamlFile = tempFolder.newFile("example.yaml").apply { writeText("name: value\n") }
+        val emptyFile = tempFolder.newFile("operation-request.json")
+
+        includeResolver.resolve(Include(yamlFile.absolutePath)) `should equal` mapOf("name" to "value")
+        includeResolver.resolve(Include(emptyFile.absolutePath)) `should equal` emptyMap<Any, Any>()
+    }
+}
@@ -5,8 +5,10 @@ import cc.dille.restdocs.openapi.plugin.common.JsonSchemaMerger
 import com.jayway.jsonpath.JsonPath
 import org.amshove.kluent.`should be equal to`
 import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.`should exist`
 import org.amshove.kluent.`should not be null`
+import org.amshove.kluent.`should not exist`
 import org.amshove.kluent.shouldContainAll
 import org.junit.Rule
 import org.junit.Test
@@ -81,8 +83,8 @@ class JsonSchemaMergerTest {
         val result = jsonSchemaMerger.mergeSchemas(includes)
 
         result.`should not be null`()
-        result.location `should be equal to` "schema0-merged.json"
-        with(File(tempFolder.root, result.location)) {
+        result.location `should be equal to` File(tempFolder.root, "schema0-merged.json").absolutePath
+        with(File(result.location)) {
             this.`should exist`()
             val mergedSchema = this.readText()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.weightBasedPrice").`should not be null`()
@@ -100,7 +102,7 @@ class JsonSchemaMergerTest {
         val result = jsonSchemaMerger.mergeSchemas(includes)
 
         result.`should not be null`()
-        with(File(tempFolder.root, result.location)) {
+        with(File(result.location)) {
             this.`should exist`()
             val mergedSchema = this.readText()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.weightBasedPrice").`should not be null`()
@@ -109,6 +111,49 @@ class JsonSchemaMergerTest {
         }
     }
 
+    @Test
+    fun `should merge schemas with absolute locations`() {
+        val directory = tempFolder.newFolder()
+        val jsonSchemaMerger = JsonSchemaMerger(directory)
+        givenIncludes(schema1, schema2)
+        includes = includes.map { Include(File(tempFolder.root, it.location).absolutePath) }
+
+        val result = jsonSchemaMerger.mergeSchemas(includes)
+
+        result.location `should be equal to` File(directory, "schema0-merged.json").absolutePath
+        with(File(result.location)) {
+            this.`should exist`()
+            JsonPath.read<List<String>>(this.readText(), "required") shouldContainAll listOf("other", "name")
+        }
+    }
+
+    @Test
+    fun `should write merged schema to merged directory`() {
+        val mergedDirectory = File(tempFolder.root, "tmp/merged")
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root, mergedDirectory)
+        givenIncludes(schema1, schema2)
+
+        val result = jsonSchemaMerger.mergeSchemas(includes)
+
+        result.location `should be equal to` File(mergedDirectory, "schema0-merged.json").absolutePath
+        File(result.location).`should exist`()
+        File(tempFolder.root, "schema0-merged.json").`should not exist`()
+    }
+
+    @Test
+    fun `should merge nested schemas`() {
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
+        givenIncludes(arraySchema("first", "integer"), arraySchema("second", "integer"), arraySchema("first", "string"))
+
+        val result = jsonSchemaMerger.mergeSchemas(includes)
+
+        with(File(result.location).readText()) {
+            JsonPath.read<List<String>>(this, "items.required") `should equal` listOf("first", "second")
+            JsonPath.read<String>(this, "items.properties.first.type") `should be equal to` "string"
+            JsonPath.read<String>(this, "items.properties.second.type") `should be equal to` "integer"
+        }
+    }
+
     @Test
     fun `should return single input`() {
         val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
@@ -119,6 +164,17 @@ class JsonSchemaMergerTest {
         result `should be` includes.first()
     }
 
+    private fun arraySchema(field: String, type: String) = """{
+  "type" : "array",
+  "items" : {
+    "type" : "object",
+    "properties" : {
+      "$field" : { "type" : "$type" }
+    },
+    "required" : [ "$field" ]
+  }
+}"""
+
     private fun givenIncludes(vararg schemas: String) {
         includes = schemas.mapIndexed { index, s -> File(tempFolder.root, "schema$index.json").apply { writeText(s) }.let { file -> Include(file.name) } }
     }
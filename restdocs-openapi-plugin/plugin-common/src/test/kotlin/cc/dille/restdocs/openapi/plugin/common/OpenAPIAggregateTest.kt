@@ -0,0 +1,146 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import org.amshove.kluent.`should be true`
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should throw`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+
+
+class OpenAPIAggregateTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    @Test
+    fun `should write the same API whatever the parallelism`() {
+        givenSnippets()
+
+        val sequentialApi = whenFragmentsAggregated(parallelism = 1)
+        val parallelApi = whenFragmentsAggregated(parallelism = 4)
+
+        parallelApi `should equal` sequentialApi
+    }
+
+    @Test
+    fun `should write the same API when aggregating incrementally`() {
+        givenSnippets()
+        whenFragmentsAggregated(incremental = true)
+        givenChangedSnippet()
+
+        val incrementalApi = whenFragmentsAggregated(incremental = true)
+        val api = whenFragmentsAggregated(incremental = false)
+
+        incrementalApi `should equal` api
+        incrementalApi.contains("summary: changed operation").`should be true`()
+    }
+
+    @Test
+    fun `should write the same API when aggregating incrementally with touched snippets`() {
+        givenSnippets()
+        val api = whenFragmentsAggregated(incremental = true)
+        givenTouchedSnippets()
+
+        val incrementalApi = whenFragmentsAggregated(incremental = true)
+
+        incrementalApi `should equal` api
+    }
+
+    @Test
+    fun `should include text body as example`() {
+        givenSnippets()
+        givenTextBody()
+
+        val api = whenFragmentsAggregated()
+
+        api.contains("example: The item was created").`should be true`()
+    }
+
+    @Test
+    fun `should fail when the tests could not write all their snippets`() {
+        givenSnippets()
+        File(tempFolder.root, "generated-snippets/restdocs-openapi-write-failure.txt").writeText("java.io.IOException: disk full")
+
+        val aggregation = { whenFragmentsAggregated() }
+
+        aggregation `should throw` IllegalStateException::class
+    }
+
+    @Test
+    fun `should write the same API once serialized`() {
+        givenSnippets()
+
+        val api = whenFragmentsAggregated()
+        val deserializedApi = whenFragmentsAggregated(serialized = true)
+
+        deserializedApi `should equal` api
+    }
+
+    private fun whenFragmentsAggregated(parallelism: Int = 1, incremental: Boolean = false, serialized: Boolean = false): String {
+        OpenAPIAggregate("3.0.1", "0.1.0", "API", null, null, null, null, null, null,
+                "openAPIDoc", "generated-snippets", "api", tempFolder.root, parallelism, incremental, false, "yaml")
+                .let { if (serialized) deserialize(serialize(it)) else it }
+                .aggregateFragments()
+        return File(tempFolder.root, "openAPIDoc/api.yaml").readText()
+    }
+
+    // As done by the Gradle worker, which runs the aggregation in another class loader
+    private fun serialize(openAPIAggregate: OpenAPIAggregate) =
+            ByteArrayOutputStream().also { bytes -> ObjectOutputStream(bytes).use { it.writeObject(openAPIAggregate) } }.toByteArray()
+
+    private fun deserialize(bytes: ByteArray) =
+            ObjectInputStream(ByteArrayInputStream(bytes)).use { it.readObject() as OpenAPIAggregate }
+
+    private fun givenChangedSnippet() {
+        File(tempFolder.root, "generated-snippets/operation-3/openapi-resource.yaml").apply {
+            writeText(readText().replace("summary: operation-3", "summary: changed operation"))
+        }
+        File(tempFolder.root, "generated-snippets/operation-3/operation-3-schema-response.json").apply {
+            writeText(readText().replace("field3", "changedField"))
+        }
+    }
+
+    // For all the operations of /items3, as the example of the first one is kept
+    private fun givenTextBody() {
+        listOf(3, 8, 13, 18).forEach { i ->
+            File(tempFolder.root, "generated-snippets/operation-$i/operation-$i-response.json").writeText("The item was created")
+        }
+    }
+
+    private fun givenTouchedSnippets() {
+        File(tempFolder.root, "generated-snippets").walkTopDown()
+                .filter { it.isFile }
+                .forEach { it.setLastModified(it.lastModified() + 2000) }
+    }
+
+    private fun givenSnippets() {
+        (0 until 20).forEach { i ->
+            val operation = "operation-$i"
+            val directory = tempFolder.newFolder("generated-snippets", operation)
+            File(directory, "openapi-resource.yaml").writeText("""/items${i % 5}/{id}:
+  ${listOf("get", "put")[i % 2]}:
+    summary: $operation
+    responses:
+      200:
+        description: some
+        content:
+          application/json:
+            schema: !include '$operation-schema-response.json'
+            example: !include '$operation-response.json'
+""")
+            File(directory, "$operation-schema-response.json").writeText("""{
+  "type" : "object",
+  "properties" : {
+    "field$i" : { "type" : "string" }
+  },
+  "required" : [ "field$i" ]
+}""")
+            File(directory, "$operation-response.json").writeText("""{ "field$i" : "value" }""")
+        }
+    }
+}
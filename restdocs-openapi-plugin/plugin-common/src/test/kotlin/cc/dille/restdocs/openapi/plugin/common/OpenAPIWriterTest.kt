@@ -1,9 +1,16 @@
 package cc.dille.restdocs.openapi.plugin.common
 
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.amshove.kluent.`should be false`
+import org.amshove.kluent.`should be true`
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.shouldContain
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TemporaryFolder
+import org.yaml.snakeyaml.Yaml
+import java.io.File
 
 
 class OpenAPIWriterTest {
@@ -22,4 +29,74 @@ class OpenAPIWriterTest {
         }
 
     }
+
+    @Test
+    fun `should write included files without aliases`() {
+        val example = File(tempFolder.root, "example.json").apply { writeText("{ \"name\" : [ \"value\" ] }") }
+        tempFolder.newFile().let { file ->
+            OpenAPIWriter.writeFile(file, mapOf(
+                    "first" to mapOf("example" to Include(example.absolutePath)),
+                    "second" to mapOf("example" to Include(example.absolutePath))))
+            file.readText().contains("&id").`should be false`()
+            file.readLines().let {
+                it.shouldContain("first:")
+                it.shouldContain("second:")
+                it.shouldContain("    - value")
+            }
+        }
+    }
+
+    @Test
+    fun `should write API as its map`() {
+        val api = givenApi()
+        val mapFile = tempFolder.newFile()
+        val apiFile = tempFolder.newFile()
+
+        OpenAPIWriter.writeFile(mapFile, api.toMainFileMap())
+        OpenAPIWriter.writeApi({ apiFile }, api, "api.yaml")
+
+        apiFile.readText() `should equal` mapFile.readText()
+    }
+
+    @Test
+    fun `should write API as JSON`() {
+        val api = givenApi()
+        val yamlFile = tempFolder.newFile()
+        val jsonFile = tempFolder.newFile()
+
+        OpenAPIWriter.writeApi({ yamlFile }, api, "api.yaml")
+        OpenAPIWriter.writeJsonApi({ jsonFile }, api, "api.json")
+
+        val objectMapper = ObjectMapper()
+        val yamlApi = objectMapper.valueToTree<JsonNode>(yamlFile.inputStream().use { Yaml().load<Map<*, *>>(it) })
+        objectMapper.readTree(jsonFile) `should equal` yamlApi
+    }
+
+    @Test
+    fun `should write included text and empty bodies as JSON values`() {
+        val textExample = File(tempFolder.root, "text-response.json").apply { writeText("The item was created") }
+        val emptyExample = File(tempFolder.root, "empty-response.json").apply { writeText("") }
+        val responses = listOf(
+                Response(201, "Created", contents = listOf(Content("text/plain", example = Include(textExample.absolutePath)))),
+                Response(204, "No Content", contents = listOf(Content("application/json", example = Include(emptyExample.absolutePath)))))
+        val api = OpenAPIApi("3.0.1", "0.1.0", "API", resourceGroups = listOf(
+                ResourceGroup("/items", listOf(OpenAPIResource("/items", listOf(Method("post", responses = responses)))))))
+        val jsonFile = tempFolder.newFile()
+
+        OpenAPIWriter.writeJsonApi({ jsonFile }, api, "api.json")
+
+        val jsonResponses = ObjectMapper().readTree(jsonFile).path("paths").path("/items").path("post").path("responses")
+        jsonResponses.path("201").path("content").path("text/plain").path("example").textValue() `should equal` "The item was created"
+        jsonResponses.path("204").path("content").path("application/json").path("example").isObject.`should be true`()
+    }
+
+    private fun givenApi(): OpenAPIApi {
+        val schema = File(tempFolder.root, "schema.json").apply { writeText("{ \"type\" : \"object\", \"required\" : [ \"true\", \"200\" ] }") }
+        val example = File(tempFolder.root, "example.json").apply { writeText("{ \"name\" : \"Note: value\", \"count\" : 2 }") }
+        return OpenAPIApi("3.0.1", "0.1.0", "API", infoDescription = "some: description", serverUrl = "http://localhost",
+                resourceGroups = listOf("/items", "/items/{id}").map { path ->
+                    ResourceGroup(path, listOf(OpenAPIResource(path, listOf(Method("get", summary = "get $path", responses = listOf(
+                            Response(200, "OK", contents = listOf(Content("application/json", Include(schema.absolutePath), Include(example.absolutePath))))))))))
+                })
+    }
 }
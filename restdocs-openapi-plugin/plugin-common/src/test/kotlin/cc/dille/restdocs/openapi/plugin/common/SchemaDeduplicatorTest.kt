@@ -0,0 +1,92 @@
+package cc.dille.restdocs.openapi.plugin.common
+
+import org.amshove.kluent.`should be false`
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+
+class SchemaDeduplicatorTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    private lateinit var contentMap: Map<*, *>
+
+    private lateinit var deduplicatedMap: Map<*, *>
+
+    private val page = """{
+  "type" : "object",
+  "properties" : {
+    "number" : { "type" : "number" },
+    "size" : { "type" : "number" }
+  }
+}"""
+
+    @Test
+    fun `should reference schema found twice`() {
+        givenContentMap(schema("first", page), schema("second", reordered(page)))
+
+        whenSchemasDeduplicated()
+
+        val reference = schemaOf("/first")
+        reference.keys `should equal` setOf("\$ref")
+        schemaOf("/second") `should equal` reference
+        components().size `should equal` 1
+    }
+
+    @Test
+    fun `should reference nested object schema found twice`() {
+        givenContentMap(
+                schema("first", """{ "type" : "object", "properties" : { "page" : $page, "items" : { "type" : "array" } } }"""),
+                schema("second", """{ "type" : "object", "properties" : { "page" : $page, "errors" : { "type" : "array" } } }"""))
+
+        whenSchemasDeduplicated()
+
+        val firstSchema = schemaOf("/first")
+        firstSchema.containsKey("\$ref").`should be false`()
+        val pageReference = (firstSchema["properties"] as Map<*, *>)["page"]
+        ((schemaOf("/second")["properties"] as Map<*, *>)["page"]) `should equal` pageReference
+        components().values.single() `should equal` mapOf(
+                "type" to "object",
+                "properties" to mapOf("number" to mapOf("type" to "number"), "size" to mapOf("type" to "number")))
+    }
+
+    @Test
+    fun `should keep single schemas inlined`() {
+        givenContentMap(schema("first", page), schema("second", """{ "type" : "string" }"""))
+
+        whenSchemasDeduplicated()
+
+        schemaOf("/first")["type"] `should equal` "object"
+        schemaOf("/second")["type"] `should equal` "string"
+        deduplicatedMap.containsKey("components").`should be false`()
+    }
+
+    private fun reordered(schema: String) = schema
+            .replace("\"number\" : { \"type\" : \"number\" },", "")
+            .replace("\"size\" : { \"type\" : \"number\" }", "\"size\" : { \"type\" : \"number\" }, \"number\" : { \"type\" : \"number\" }")
+
+    private fun schema(name: String, schema: String) =
+            Include(File(tempFolder.root, "$name-schema-response.json").apply { writeText(schema) }.absolutePath)
+
+    private fun givenContentMap(first: Include, second: Include) {
+        contentMap = mapOf("paths" to mapOf(
+                "/first" to content(first),
+                "/second" to content(second)))
+    }
+
+    private fun content(schema: Include) =
+            mapOf("get" to mapOf("responses" to mapOf(200 to mapOf("content" to mapOf("application/json" to mapOf("schema" to schema))))))
+
+    private fun whenSchemasDeduplicated() {
+        deduplicatedMap = SchemaDeduplicator(IncludeResolver()).deduplicate(contentMap)
+    }
+
+    private fun schemaOf(path: String): Map<*, *> =
+            listOf(path, "get", "responses", 200, "content", "application/json", "schema")
+                    .fold((deduplicatedMap["paths"] as Map<*, *>) as Any?) { map, key -> (map as Map<*, *>)[key] } as Map<*, *>
+
+    private fun components() = (deduplicatedMap["components"] as Map<*, *>)["schemas"] as Map<*, *>
+}
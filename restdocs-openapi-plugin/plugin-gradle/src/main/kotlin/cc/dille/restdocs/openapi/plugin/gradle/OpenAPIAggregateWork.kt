@@ -0,0 +1,10 @@
+package cc.dille.restdocs.openapi.plugin.gradle
+
+import cc.dille.restdocs.openapi.plugin.common.OpenAPIAggregate
+import javax.inject.Inject
+
+
+class OpenAPIAggregateWork @Inject constructor(private val openAPIAggregate: OpenAPIAggregate) : Runnable {
+
+    override fun run() = openAPIAggregate.aggregateFragments()
+}
@@ -0,0 +1,57 @@
+package cc.dille.restdocs.openapi.plugin.gradle
+
+import cc.dille.restdocs.openapi.plugin.common.PluginDefaultValues
+import org.gradle.api.model.ObjectFactory
+import org.gradle.api.provider.Property
+
+
+// The setters keep the `openapidoc { infoTitle = "..." }` syntax of the build scripts working
+open class RestdocsOpenAPIGradleExtension(objects: ObjectFactory) {
+    private val defaults = PluginDefaultValues()
+
+    val openAPIVersion: Property<String> = objects.property(String::class.java).apply { set(defaults.openAPIVersion) }
+
+    val infoVersion: Property<String> = objects.property(String::class.java).apply { set(defaults.infoVersion) }
+    val infoTitle: Property<String> = objects.property(String::class.java).apply { set(defaults.infoTitle) }
+    val infoDescription: Property<String> = objects.property(String::class.java)
+    val infoContactName: Property<String> = objects.property(String::class.java)
+    val infoContactEmail: Property<String> = objects.property(String::class.java)
+    val infoContactUrl: Property<String> = objects.property(String::class.java)
+
+    val serverUrl: Property<String> = objects.property(String::class.java)
+    val serverDescription: Property<String> = objects.property(String::class.java)
+
+    val outputDirectory: Property<String> = objects.property(String::class.java).apply { set(defaults.outputDirectory) }
+    val snippetsDirectory: Property<String> = objects.property(String::class.java).apply { set(defaults.snippetsDirectory) }
+
+    val outputFileNamePrefix: Property<String> = objects.property(String::class.java).apply { set(defaults.outputFileNamePrefix) }
+    val outputFormat: Property<String> = objects.property(String::class.java).apply { set(defaults.outputFormat) }
+
+    val parallelism: Property<Int> = objects.property(Int::class.javaObjectType).apply { set(defaults.parallelism) }
+    val incremental: Property<Boolean> = objects.property(Boolean::class.javaObjectType).apply { set(defaults.incremental) }
+
+    val deduplicateSchemas: Property<Boolean> = objects.property(Boolean::class.javaObjectType).apply { set(defaults.deduplicateSchemas) }
+
+    fun setOpenAPIVersion(openAPIVersion: String) = this.openAPIVersion.set(openAPIVersion)
+
+    fun setInfoVersion(infoVersion: String) = this.infoVersion.set(infoVersion)
+    fun setInfoTitle(infoTitle: String) = this.infoTitle.set(infoTitle)
+    fun setInfoDescription(infoDescription: String) = this.infoDescription.set(infoDescription)
+    fun setInfoContactName(infoContactName: String) = this.infoContactName.set(infoContactName)
+    fun setInfoContactEmail(infoContactEmail: String) = this.infoContactEmail.set(infoContactEmail)
+    fun setInfoContactUrl(infoContactUrl: String) = this.infoContactUrl.set(infoContactUrl)
+
+    fun setServerUrl(serverUrl: String) = this.serverUrl.set(serverUrl)
+    fun setServerDescription(serverDescription: String) = this.serverDescription.set(serverDescription)
+
+    fun setOutputDirectory(outputDirectory: String) = this.outputDirectory.set(outputDirectory)
+    fun setSnippetsDirectory(snippetsDirectory: String) = this.snippetsDirectory.set(snippetsDirectory)
+
+    fun setOutputFileNamePrefix(outputFileNamePrefix: String) = this.outputFileNamePrefix.set(outputFileNamePrefix)
+    fun setOutputFormat(outputFormat: String) = this.outputFormat.set(outputFormat)
+
+    fun setParallelism(parallelism: Int) = this.parallelism.set(parallelism)
+    fun setIncremental(incremental: Boolean) = this.incremental.set(incremental)
+
+    fun setDeduplicateSchemas(deduplicateSchemas: Boolean) = this.deduplicateSchemas.set(deduplicateSchemas)
+}
@@ -1,6 +1,5 @@
 package cc.dille.restdocs.openapi.plugin.gradle
 
-import cc.dille.restdocs.openapi.plugin.common.PluginDefaultValues
 import org.gradle.api.Plugin
 import org.gradle.api.Project
 
@@ -9,29 +8,36 @@ class RestdocsOpenAPIGradlePlugin : Plugin<Project> {
 
     override fun apply(project: Project) {
         with(project) {
-            extensions.create("openapidoc", PluginDefaultValues::class.java)
-            afterEvaluate {
-                val openAPIdoc = extensions.findByName("openapidoc") as PluginDefaultValues
-                tasks.create("openapidoc", RestdocsOpenAPIGradleTask::class.java).apply {
+            val openAPIdoc = extensions.create("openapidoc", RestdocsOpenAPIGradleExtension::class.java, objects)
+            tasks.register("openapidoc", RestdocsOpenAPIGradleTask::class.java) { task ->
+                task.apply {
                     dependsOn("check")
                     description = "Aggregate fragments into an OpenAPI file"
 
-                    openAPIVersion = openAPIdoc.openAPIVersion
+                    openAPIVersion.set(openAPIdoc.openAPIVersion)
 
-                    infoVersion = openAPIdoc.infoVersion
-                    infoTitle = openAPIdoc.infoTitle
-                    infoDescription = openAPIdoc.infoDescription
-                    infoContactName = openAPIdoc.infoContactName
-                    infoContactEmail = openAPIdoc.infoContactEmail
-                    infoContactUrl = openAPIdoc.infoContactUrl
+                    infoVersion.set(openAPIdoc.infoVersion)
+                    infoTitle.set(openAPIdoc.infoTitle)
+                    infoDescription.set(openAPIdoc.infoDescription)
+                    infoContactName.set(openAPIdoc.infoContactName)
+                    infoContactEmail.set(openAPIdoc.infoContactEmail)
+                    infoContactUrl.set(openAPIdoc.infoContactUrl)
 
-                    serverUrl = openAPIdoc.serverUrl
-                    serverDescription = openAPIdoc.serverDescription
+                    serverUrl.set(openAPIdoc.serverUrl)
+                    serverDescription.set(openAPIdoc.serverDescription)
 
-                    outputDirectory = openAPIdoc.outputDirectory
-                    snippetsDirectory = openAPIdoc.snippetsDirectory
+                    outputDirectory.set(openAPIdoc.outputDirectory)
+                    snippetsDirectory.set(openAPIdoc.snippetsDirectory)
 
-                    outputFileNamePrefix = openAPIdoc.outputFileNamePrefix
+                    outputFileNamePrefix.set(openAPIdoc.outputFileNamePrefix)
+                    outputFormat.set(openAPIdoc.outputFormat)
+
+                    parallelism.set(openAPIdoc.parallelism)
+                    incremental.set(openAPIdoc.incremental)
+
+                    deduplicateSchemas.set(openAPIdoc.deduplicateSchemas)
+
+                    buildDirectory.set(layout.buildDirectory)
                 }
             }
         }
@@ -1,73 +1,126 @@
 package cc.dille.restdocs.openapi.plugin.gradle
 
 import cc.dille.restdocs.openapi.plugin.common.OpenAPIAggregate
+import cc.dille.restdocs.openapi.plugin.common.OutputFormat
 import org.gradle.api.DefaultTask
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.FileTree
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.CacheableTask
 import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.Optional
+import org.gradle.api.tasks.OutputFiles
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
 import org.gradle.api.tasks.TaskAction
+import org.gradle.workers.IsolationMode
+import org.gradle.workers.WorkerExecutor
+import java.io.File
+import java.util.concurrent.Callable
+import javax.inject.Inject
 
 
-open class RestdocsOpenAPIGradleTask : DefaultTask() {
+@CacheableTask
+open class RestdocsOpenAPIGradleTask @Inject constructor(private val workerExecutor: WorkerExecutor) : DefaultTask() {
 
-    @Input
-    lateinit var openAPIVersion: String
+    @get:Input
+    val openAPIVersion: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    lateinit var infoVersion: String
+    @get:Input
+    val infoVersion: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    lateinit var infoTitle: String
+    @get:Input
+    val infoTitle: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var infoDescription: String? = null
+    @get:Input
+    @get:Optional
+    val infoDescription: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var infoContactName: String? = null
+    @get:Input
+    @get:Optional
+    val infoContactName: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var infoContactEmail: String? = null
+    @get:Input
+    @get:Optional
+    val infoContactEmail: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var infoContactUrl: String? = null
+    @get:Input
+    @get:Optional
+    val infoContactUrl: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var serverUrl: String? = null
+    @get:Input
+    @get:Optional
+    val serverUrl: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    @Optional
-    var serverDescription: String? = null
+    @get:Input
+    @get:Optional
+    val serverDescription: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    lateinit var outputDirectory: String
+    @get:Input
+    val outputDirectory: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    lateinit var snippetsDirectory: String
+    @get:Input
+    val snippetsDirectory: Property<String> = project.objects.property(String::class.java)
 
-    @Input
-    lateinit var outputFileNamePrefix: String
+    @get:Input
+    val outputFileNamePrefix: Property<String> = project.objects.property(String::class.java)
 
+    @get:Input
+    val outputFormat: Property<String> = project.objects.property(String::class.java)
 
+    // The output does not depend on the parallelism
+    @get:Internal
+    val parallelism: Property<Int> = project.objects.property(Int::class.javaObjectType)
+
+    // Neither does it depend on reusing the previous aggregation
+    @get:Internal
+    val incremental: Property<Boolean> = project.objects.property(Boolean::class.javaObjectType)
+
+    @get:Input
+    val deduplicateSchemas: Property<Boolean> = project.objects.property(Boolean::class.javaObjectType)
+
+    // The directories above are relative to it
+    @get:Internal
+    val buildDirectory: DirectoryProperty = project.layout.directoryProperty()
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    val snippets: FileTree = project.fileTree(Callable { File(buildDirectory.get().asFile, snippetsDirectory.get()) })
+
+    // Named by file name suffix: plural outputs given as a file collection could not be cached
+    @get:OutputFiles
+    val apiFiles: Map<String, File>
+        get() = OutputFormat.of(outputFormat.get()).fileNameSuffixes
+                .associate { it to File(buildDirectory.get().asFile, "${outputDirectory.get()}/${outputFileNamePrefix.get()}$it") }
+
+    // The aggregation runs in its own class loader, and in parallel with the tasks of the other projects
     @TaskAction
     fun aggregateOpenAPIFragments() {
-        OpenAPIAggregate(openAPIVersion,
-                infoVersion,
-                infoTitle,
-                infoDescription,
-                infoContactName,
-                infoContactEmail,
-                infoContactUrl,
-                serverUrl,
-                serverDescription,
-                outputDirectory,
-                snippetsDirectory,
-                outputFileNamePrefix,
-                project.buildDir
+        val openAPIAggregate = OpenAPIAggregate(openAPIVersion.get(),
+                infoVersion.get(),
+                infoTitle.get(),
+                infoDescription.orNull,
+                infoContactName.orNull,
+                infoContactEmail.orNull,
+                infoContactUrl.orNull,
+                serverUrl.orNull,
+                serverDescription.orNull,
+                outputDirectory.get(),
+                snippetsDirectory.get(),
+                outputFileNamePrefix.get(),
+                buildDirectory.get().asFile,
+                parallelism.get(),
+                incremental.get(),
+                deduplicateSchemas.get(),
+                outputFormat.get()
         )
-                .aggregateFragments()
+
+        workerExecutor.submit(OpenAPIAggregateWork::class.java) {
+            it.isolationMode = IsolationMode.CLASSLOADER
+            it.displayName = "Aggregate OpenAPI fragments into ${apiFiles.values}"
+            it.params(openAPIAggregate)
+        }
     }
 }
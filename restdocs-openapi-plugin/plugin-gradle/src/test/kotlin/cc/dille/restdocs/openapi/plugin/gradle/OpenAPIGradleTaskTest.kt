@@ -1,11 +1,16 @@
 package cc.dille.restdocs.openapi.plugin.gradle
 
 import cc.dille.restdocs.openapi.plugin.common.OpenAPITaskTestResources
+import org.amshove.kluent.`should equal`
 import org.gradle.testkit.runner.BuildResult
 import org.gradle.testkit.runner.GradleRunner
+import org.gradle.testkit.runner.TaskOutcome
+import org.gradle.testkit.runner.TaskOutcome.FROM_CACHE
 import org.gradle.testkit.runner.TaskOutcome.SUCCESS
+import org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE
 import org.junit.Before
 import org.junit.Test
+import java.io.File
 
 class OpenAPIGradleTaskTest : OpenAPITaskTestResources() {
     private lateinit var result: BuildResult
@@ -20,10 +25,12 @@ class OpenAPIGradleTaskTest : OpenAPITaskTestResources() {
     override fun thenTaskSucceeded() =
             (result.task(":openapidoc")?.outcome == SUCCESS)
 
-    override fun whenPluginExecuted() {
+    override fun whenPluginExecuted() = whenPluginExecuted("--info", "--stacktrace", "openapidoc")
+
+    private fun whenPluginExecuted(vararg arguments: String) {
         result = GradleRunner.create()
                 .withProjectDir(testProjectDir.root)
-                .withArguments("--info", "--stacktrace", "openapidoc")
+                .withArguments(*arguments)
                 .withPluginClasspath(pluginClasspath)
 //                .forwardOutput()
                 .build()
@@ -47,6 +54,10 @@ openapidoc {
     serverUrl = "$serverUrl"
     serverDescription = "$serverDescription"
     outputFileNamePrefix = "$outputFileNamePrefix"
+    outputFormat = "$outputFormat"
+    parallelism = $parallelism
+    incremental = $incremental
+    deduplicateSchemas = $deduplicateSchemas
 }
 """
 
@@ -58,4 +69,32 @@ openapidoc {
     @Test
     fun `call should aggregate OpenAPI fragments with missing openAPIDoc closure`() =
             `should aggregate OpenAPI fragments with missing openAPIDoc closure`()
+
+    @Test
+    fun `call should be up to date with unchanged snippets`() {
+        givenBuildFileWithoutOpenAPIDocClosure()
+        givenSnippetFiles()
+        givenRequestBodyJsonFile()
+        whenPluginExecuted()
+
+        whenPluginExecuted()
+
+        thenTaskOutcome() `should equal` UP_TO_DATE
+    }
+
+    @Test
+    fun `call should take the OpenAPI file from the build cache`() {
+        givenBuildFileWithoutOpenAPIDocClosure()
+        givenSnippetFiles()
+        givenRequestBodyJsonFile()
+        whenPluginExecuted("--build-cache", "openapidoc")
+        File(testProjectDir.root, "build/openAPIdoc/$outputFileNamePrefix.yaml").delete()
+
+        whenPluginExecuted("--build-cache", "openapidoc")
+
+        thenTaskOutcome() `should equal` FROM_CACHE
+        thenGroupFileGenerated()
+    }
+
+    private fun thenTaskOutcome(): TaskOutcome? = result.task(":openapidoc")?.outcome
 }
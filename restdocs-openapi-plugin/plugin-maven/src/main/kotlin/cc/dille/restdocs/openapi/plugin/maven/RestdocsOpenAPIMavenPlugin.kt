@@ -43,6 +43,18 @@ class RestdocsOpenAPIMavenPlugin : AbstractMojo() {
     @Parameter(property = "outputFileNamePrefix")
     var outputFileNamePrefix = o.outputFileNamePrefix
 
+    @Parameter(property = "outputFormat")
+    var outputFormat = o.outputFormat
+
+    @Parameter(property = "parallelism")
+    var parallelism: Int = o.parallelism
+
+    @Parameter(property = "incremental")
+    var incremental: Boolean = o.incremental
+
+    @Parameter(property = "deduplicateSchemas")
+    var deduplicateSchemas: Boolean = o.deduplicateSchemas
+
     @Parameter(readonly = true, defaultValue = "\${project.build.directory}")
     lateinit var buildDir: String
 
@@ -59,7 +71,11 @@ class RestdocsOpenAPIMavenPlugin : AbstractMojo() {
                 outputDirectory,
                 snippetsDirectory,
                 outputFileNamePrefix,
-                File(buildDir)
+                File(buildDir),
+                parallelism,
+                incremental,
+                deduplicateSchemas,
+                outputFormat
         )
                 .aggregateFragments()
     }
@@ -101,6 +101,10 @@ class OpenAPIMavenTaskTest : OpenAPITaskTestResources() {
                     <serverUrl>$serverUrl</serverUrl>
                     <serverDescription>$serverDescription</serverDescription>
                     <outputFileNamePrefix>$outputFileNamePrefix</outputFileNamePrefix>
+                    <outputFormat>$outputFormat</outputFormat>
+                    <parallelism>$parallelism</parallelism>
+                    <incremental>$incremental</incremental>
+                    <deduplicateSchemas>$deduplicateSchemas</deduplicateSchemas>
                 </configuration>
             </plugin>
         </plugins>
@@ -1,8 +1,14 @@
 package cc.dille.restdocs.openapi;
 
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static java.util.Collections.unmodifiableList;
 import static org.springframework.restdocs.snippet.Attributes.key;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.restdocs.constraints.Constraint;
 import org.springframework.restdocs.constraints.ValidatorConstraintResolver;
 import org.springframework.restdocs.payload.FieldDescriptor;
 
@@ -11,7 +17,17 @@ import org.springframework.restdocs.payload.FieldDescriptor;
  * If these are present in the descriptor they are used to enrich the generated type information (e.g. JsonSchema)
  */
 public class ConstrainedFields {
-        private final ValidatorConstraintResolver validatorConstraintResolver = new ValidatorConstraintResolver();
+        private static final ValidatorConstraintResolver VALIDATOR_CONSTRAINT_RESOLVER = new ValidatorConstraintResolver();
+
+        /**
+         * Constraints resolved per class and property, shared by all instances as resolving them introspects the class
+         */
+        private static final ClassValue<ConcurrentMap<String, List<Constraint>>> CONSTRAINTS = new ClassValue<ConcurrentMap<String, List<Constraint>>>() {
+            @Override
+            protected ConcurrentMap<String, List<Constraint>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
 
         private final Class<?> classHoldingConstraints;
 
@@ -25,7 +41,7 @@ public class ConstrainedFields {
          */
         public FieldDescriptor withPath(String path) {
             return fieldWithPath(path).attributes(key("validationConstraints")
-                    .value(this.validatorConstraintResolver.resolveForProperty(path, classHoldingConstraints)));
+                    .value(constraintsOf(path)));
         }
 
         /**
@@ -36,6 +52,11 @@ public class ConstrainedFields {
          */
         public FieldDescriptor withMappedPath(String jsonPath, String beanPropertyName) {
             return fieldWithPath(jsonPath).attributes(key("validationConstraints")
-                    .value(this.validatorConstraintResolver.resolveForProperty(beanPropertyName, classHoldingConstraints)));
+                    .value(constraintsOf(beanPropertyName)));
+        }
+
+        private List<Constraint> constraintsOf(String property) {
+            return CONSTRAINTS.get(classHoldingConstraints).computeIfAbsent(property,
+                    p -> unmodifiableList(VALIDATOR_CONSTRAINT_RESOLVER.resolveForProperty(p, classHoldingConstraints)));
         }
     }
\ No newline at end of file
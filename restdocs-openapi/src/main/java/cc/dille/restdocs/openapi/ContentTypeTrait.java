@@ -0,0 +1,31 @@
+package cc.dille.restdocs.openapi;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+interface ContentTypeTrait {
+
+    /**
+     * @return the content type of the headers, without its parameters when they are invalid, e.g. an unknown
+     * charset, or null when it is missing or invalid
+     */
+    default MediaType getContentType(HttpHeaders headers) {
+        try {
+            return headers.getContentType();
+        } catch (InvalidMediaTypeException e) {
+            try {
+                return MediaType.parseMediaType(headers.getFirst(HttpHeaders.CONTENT_TYPE).split(";", 2)[0]);
+            } catch (InvalidMediaTypeException typeException) {
+                return null;
+            }
+        }
+    }
+
+    default String getContentTypeOrDefault(HttpHeaders headers) {
+        MediaType contentType = getContentType(headers);
+        return contentType == null ? APPLICATION_JSON_VALUE : contentType.getType() + "/" + contentType.getSubtype();
+    }
+}
@@ -1,8 +1,8 @@
 package cc.dille.restdocs.openapi;
 
-import static java.util.Collections.emptyList;
-
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,49 +19,82 @@ import org.springframework.restdocs.request.ParameterDescriptor;
 
 public class DescriptorExtractor {
 
-    public static List<FieldDescriptor> extract(AbstractFieldsSnippet snippet) {
-        try {
-            Method getFieldDescriptors = AbstractFieldsSnippet.class.getDeclaredMethod("getFieldDescriptors");
-            getFieldDescriptors.setAccessible(true);
-            return (List<FieldDescriptor>) getFieldDescriptors.invoke(snippet);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
+    private static final Accessor FIELD_DESCRIPTORS = new Accessor(AbstractFieldsSnippet.class, "getFieldDescriptors", "fieldDescriptors");
+    private static final Accessor LINK_DESCRIPTORS = new Accessor(LinksSnippet.class, "getDescriptorsByRel", "descriptorsByRel");
+    private static final Accessor HEADER_DESCRIPTORS = new Accessor(AbstractHeadersSnippet.class, "getHeaderDescriptors", "headerDescriptors");
+    private static final Accessor PARAMETER_DESCRIPTORS = new Accessor(AbstractParametersSnippet.class, "getParameterDescriptors", "descriptorsByName");
 
-        return emptyList();
+    @SuppressWarnings("unchecked")
+    public static List<FieldDescriptor> extract(AbstractFieldsSnippet snippet) {
+        return (List<FieldDescriptor>) FIELD_DESCRIPTORS.get(snippet);
     }
 
+    @SuppressWarnings("unchecked")
     public static List<LinkDescriptor> extract(LinksSnippet snippet) {
-        try {
-            Method getDescriptorsByRel = LinksSnippet.class.getDeclaredMethod("getDescriptorsByRel");
-            getDescriptorsByRel.setAccessible(true);
-            return new ArrayList<>(((Map<String, LinkDescriptor>) getDescriptorsByRel.invoke(snippet)).values());
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-        return emptyList();
+        return new ArrayList<>(((Map<String, LinkDescriptor>) LINK_DESCRIPTORS.get(snippet)).values());
     }
 
+    @SuppressWarnings("unchecked")
     public static List<HeaderDescriptor> extract(AbstractHeadersSnippet snippet) {
-        try {
-            Method getHeaderDescriptors = AbstractHeadersSnippet.class.getDeclaredMethod("getHeaderDescriptors");
-            getHeaderDescriptors.setAccessible(true);
-            return (List<HeaderDescriptor>) getHeaderDescriptors.invoke(snippet);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
+        return (List<HeaderDescriptor>) HEADER_DESCRIPTORS.get(snippet);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<ParameterDescriptor> extract(AbstractParametersSnippet snippet) {
+        return new ArrayList<>(((Map<String, ParameterDescriptor>) PARAMETER_DESCRIPTORS.get(snippet)).values());
+    }
+
+    // Looked up once: the protected getter of the snippet, or the field behind it when the getter is missing
+    private static class Accessor {
+        private final Class<?> snippetType;
+        private final MethodHandle handle;
+        private final ReflectiveOperationException lookupFailure;
+
+        Accessor(Class<?> snippetType, String getterName, String fieldName) {
+            this.snippetType = snippetType;
+            MethodHandle handle = null;
+            ReflectiveOperationException lookupFailure = null;
+            try {
+                handle = getter(snippetType, getterName);
+            } catch (ReflectiveOperationException e) {
+                try {
+                    handle = fieldGetter(snippetType, fieldName);
+                } catch (ReflectiveOperationException fieldFailure) {
+                    e.addSuppressed(fieldFailure);
+                    lookupFailure = e;
+                }
+            }
+            this.handle = handle;
+            this.lookupFailure = lookupFailure;
+        }
+
+        Object get(Object snippet) {
+            if (handle == null) {
+                throw new DescriptorExtractionException(snippetType, lookupFailure);
+            }
+            try {
+                return handle.invoke(snippet);
+            } catch (Throwable e) {
+                throw new DescriptorExtractionException(snippetType, e);
+            }
         }
 
-        return emptyList();
+        private static MethodHandle getter(Class<?> snippetType, String name) throws ReflectiveOperationException {
+            Method method = snippetType.getDeclaredMethod(name);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+
+        private static MethodHandle fieldGetter(Class<?> snippetType, String name) throws ReflectiveOperationException {
+            Field field = snippetType.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        }
     }
 
-    public static List<ParameterDescriptor> extract(AbstractParametersSnippet snippet) {
-        try {
-            Method getParameterDescriptors = AbstractParametersSnippet.class.getDeclaredMethod("getParameterDescriptors");
-            getParameterDescriptors.setAccessible(true);
-            return new ArrayList<>(((Map<String, ParameterDescriptor>) getParameterDescriptors.invoke(snippet)).values());
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
+    static class DescriptorExtractionException extends RuntimeException {
+        DescriptorExtractionException(Class<?> snippetType, Throwable cause) {
+            super(String.format("Could not extract the descriptors of %s", snippetType.getSimpleName()), cause);
         }
-        return emptyList();
     }
 }
@@ -0,0 +1,53 @@
+package cc.dille.restdocs.openapi;
+
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Records the cost of documenting each operation, to tell the time spent on the documentation from the time
+ * spent on the code under test.
+ * <p>
+ * An implementation is looked up with the {@link ServiceLoader}. When there is none and the
+ * {@value #METRICS_FILE_PROPERTY} system property is set, a JSON summary is written to that file at JVM shutdown.
+ */
+public interface DocumentationMetrics {
+
+    String METRICS_FILE_PROPERTY = "restdocs-openapi.metricsFile";
+
+    DocumentationMetrics NONE = (operationName, step, name, durationNanos, bytes) -> {};
+
+    enum Step {
+        /** An {@link OperationHandler} building its part of the model, named after the handler */
+        HANDLER,
+        /** The rendering of the fragment */
+        RENDER,
+        /** The generation of a JSON schema, named after the body */
+        SCHEMA,
+        /** The writing of a body or a schema file, named after the file kind */
+        WRITE
+    }
+
+    /**
+     * @param bytes the number of bytes written, 0 for the steps which do not write a file
+     */
+    void record(String operationName, Step step, String name, long durationNanos, long bytes);
+
+    /**
+     * Called once at JVM shutdown, after the pending file writes were flushed and recorded.
+     */
+    default void close() {
+    }
+
+    static DocumentationMetrics load() {
+        Iterator<DocumentationMetrics> implementations = ServiceLoader.load(DocumentationMetrics.class).iterator();
+        if (implementations.hasNext()) {
+            return implementations.next();
+        }
+        String metricsFile = System.getProperty(METRICS_FILE_PROPERTY);
+        if (metricsFile != null && !metricsFile.isEmpty()) {
+            return new JsonSummaryMetrics(Paths.get(metricsFile));
+        }
+        return NONE;
+    }
+}
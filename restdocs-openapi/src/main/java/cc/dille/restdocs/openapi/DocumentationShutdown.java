@@ -0,0 +1,61 @@
+package cc.dille.restdocs.openapi;
+
+/**
+ * The one shutdown hook of the documentation: it flushes the pending snippet files, and only then closes the
+ * metrics, so that they hold the last writes.
+ * <p>
+ * When the last files could not be written, the failure is reported in the snippets directories, so that the
+ * aggregation fails instead of documenting an API with missing snippets. The JVM exits as usual, so that the other
+ * shutdown hooks still run.
+ */
+class DocumentationShutdown {
+
+    private final SnippetFileWriter fileWriter;
+
+    private final DocumentationMetrics metrics;
+
+    DocumentationShutdown(SnippetFileWriter fileWriter, DocumentationMetrics metrics) {
+        this.fileWriter = fileWriter;
+        this.metrics = metrics;
+    }
+
+    static void register(SnippetFileWriter fileWriter, DocumentationMetrics metrics) {
+        if (fileWriter.isAsync() || metrics != DocumentationMetrics.NONE) {
+            DocumentationShutdown shutdown = new DocumentationShutdown(fileWriter, metrics);
+            Runtime.getRuntime().addShutdownHook(new Thread(shutdown::shutDownAndLogFailure, "restdocs-openapi-shutdown"));
+        }
+    }
+
+    /**
+     * @return the failure of the last writes, reported in the snippets directories, or null
+     */
+    RuntimeException shutDown() {
+        RuntimeException failure = null;
+        try {
+            fileWriter.flush();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        try {
+            metrics.close();
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+        if (failure != null) {
+            fileWriter.reportFailure(failure);
+        }
+        return failure;
+    }
+
+    private void shutDownAndLogFailure() {
+        RuntimeException failure = shutDown();
+        if (failure != null) {
+            System.err.println("ERROR restdocs-openapi: the last snippet files could not be written, "
+                    + "see " + SnippetFileWriter.FAILURE_FILE_NAME + " in the snippets directory");
+            failure.printStackTrace();
+        }
+    }
+}
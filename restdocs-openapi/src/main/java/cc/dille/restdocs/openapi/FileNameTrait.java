@@ -1,7 +1,6 @@
 package cc.dille.restdocs.openapi;
 
 import org.springframework.restdocs.operation.Operation;
-import org.springframework.util.StringUtils;
 
 public interface FileNameTrait {
 
@@ -20,7 +19,7 @@ public interface FileNameTrait {
     }
 
     default boolean shouldGenerateRequestSchemaFile(Operation operation, OpenAPIResourceSnippetParameters parameters) {
-        return !StringUtils.isEmpty(operation.getRequest().getContentAsString()) && !parameters.getRequestFields().isEmpty();
+        return !parameters.getRequestFields().isEmpty() && operation.getRequest().getContent().length > 0;
     }
 
     default String getRequestSchemaFileName(String operationName) {
@@ -28,8 +27,8 @@ public interface FileNameTrait {
     }
 
     default boolean shouldGenerateResponseSchemaFile(Operation operation, OpenAPIResourceSnippetParameters parameters) {
-        return !StringUtils.isEmpty(operation.getResponse().getContentAsString())
-                && !(parameters.getResponseFields().isEmpty() && parameters.getLinks().isEmpty());
+        return !(parameters.getResponseFields().isEmpty() && parameters.getLinks().isEmpty())
+                && operation.getResponse().getContent().length > 0;
     }
 
     default String getResponseSchemaFileName(String operationName) {
@@ -0,0 +1,135 @@
+package cc.dille.restdocs.openapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Sums up the cost of the documentation in a JSON file: the slowest operations, and a histogram of the durations
+ * of each step, e.g. of each handler.
+ */
+class JsonSummaryMetrics implements DocumentationMetrics {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int SLOWEST_OPERATION_COUNT = 20;
+
+    private static final long[] BUCKET_UPPER_BOUNDS_NANOS = {10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private static final String[] BUCKET_NAMES = {"<10us", "<100us", "<1ms", "<10ms", "<100ms", ">=100ms"};
+
+    private final Path summaryFile;
+
+    private final ConcurrentMap<String, OperationCost> operations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, StepHistogram> steps = new ConcurrentHashMap<>();
+
+    JsonSummaryMetrics(Path summaryFile) {
+        this.summaryFile = summaryFile;
+    }
+
+    @Override
+    public void record(String operationName, Step step, String name, long durationNanos, long bytes) {
+        operations.computeIfAbsent(operationName, n -> new OperationCost()).add(durationNanos, bytes);
+        steps.computeIfAbsent(step.name().toLowerCase() + ":" + name, s -> new StepHistogram()).add(durationNanos);
+    }
+
+    @Override
+    public void close() {
+        writeSummary();
+    }
+
+    void writeSummary() {
+        try {
+            Path directory = summaryFile.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(Files.newBufferedWriter(summaryFile, UTF_8)).useDefaultPrettyPrinter()) {
+                generator.writeStartObject();
+                writeSlowestOperations(generator);
+                writeSteps(generator);
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSlowestOperations(JsonGenerator generator) throws IOException {
+        List<Map.Entry<String, OperationCost>> slowestOperations = new ArrayList<>(operations.entrySet());
+        slowestOperations.sort(comparingLong((Map.Entry<String, OperationCost> entry) -> entry.getValue().nanos.sum()).reversed());
+
+        generator.writeArrayFieldStart("slowestOperations");
+        for (Map.Entry<String, OperationCost> operation : slowestOperations.subList(0, Math.min(SLOWEST_OPERATION_COUNT, slowestOperations.size()))) {
+            generator.writeStartObject();
+            generator.writeStringField("operation", operation.getKey());
+            generator.writeNumberField("millis", millis(operation.getValue().nanos.sum()));
+            generator.writeNumberField("bytesWritten", operation.getValue().bytes.sum());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeSteps(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("steps");
+        for (Map.Entry<String, StepHistogram> step : new TreeMap<>(steps).entrySet()) {
+            StepHistogram histogram = step.getValue();
+            generator.writeObjectFieldStart(step.getKey());
+            generator.writeNumberField("count", histogram.count.sum());
+            generator.writeNumberField("millis", millis(histogram.nanos.sum()));
+            generator.writeObjectFieldStart("histogram");
+            for (int i = 0; i < BUCKET_NAMES.length; i++) {
+                generator.writeNumberField(BUCKET_NAMES[i], histogram.buckets.get(i));
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class OperationCost {
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void add(long durationNanos, long writtenBytes) {
+            nanos.add(durationNanos);
+            bytes.add(writtenBytes);
+        }
+    }
+
+    private static class StepHistogram {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_NAMES.length);
+
+        void add(long durationNanos) {
+            count.increment();
+            nanos.add(durationNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_BOUNDS_NANOS.length && durationNanos >= BUCKET_UPPER_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+    }
+}
@@ -1,52 +1,71 @@
 package cc.dille.restdocs.openapi;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.restdocs.operation.Operation;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 public class JwtScopeHandler implements OperationHandler {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int MAX_CACHED_TOKENS = 1024;
+
+    /**
+     * Scopes by token, as the same tokens are sent by many requests.
+     * Once full, the tokens not seen yet are parsed without being cached.
+     */
+    private static final ConcurrentMap<String, List<String>> SCOPES = new ConcurrentHashMap<>();
+
     @Override
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters openAPIResourceSnippetParameters) {
-        return handleScopes(operation);
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters openAPIResourceSnippetParameters) {
+        return operation.getRequest().getHeaders().containsKey("Authorization");
     }
 
-    private Map<String, Object> handleScopes(Operation operation) {
-        Map<String, Object> model = new HashMap<>();
-        if (operation.getRequest().getHeaders().getFirst("Authorization") != null) {
-            String jwt = operation.getRequest().getHeaders().getFirst("Authorization")
-                    .replace("Bearer ", "");
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters openAPIResourceSnippetParameters, Map<String, Object> model) {
+        String authorization = operation.getRequest().getHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            String jwt = authorization.replace("Bearer ", "");
             List<String> scopes = jwt2scopes(jwt).stream().map(s -> "\"" + s + "\"").collect(toList());
             if (!scopes.isEmpty()) {
                 String renderedScopes = "[" + String.join(", ", scopes) + "]";
                 model.put("scopes", renderedScopes);
             }
         }
-        return model;
     }
 
-    @SuppressWarnings("unchecked")
     private static List<String> jwt2scopes(final String jwt) {
+        List<String> scopes = SCOPES.get(jwt);
+        if (scopes == null) {
+            scopes = parseScopes(jwt);
+            if (SCOPES.size() < MAX_CACHED_TOKENS) {
+                SCOPES.putIfAbsent(jwt, scopes);
+            }
+        }
+        return scopes;
+    }
+
+    private static List<String> parseScopes(final String jwt) {
         String[] jwtParts = jwt.split("\\.");
         if (jwtParts.length >= 2) { // JWT = header, payload, signature; at least the first two should be there
             String jwtPayload = jwtParts[1];
-            try {
-                String decodedPayload = new String(Base64.getDecoder().decode(jwtPayload));
-                Map<String, Object> jwtMap =  new ObjectMapper().readValue(decodedPayload, new TypeReference<Map<String, Object>>(){});
-                Object scope = jwtMap.get("scope");
-                if (scope instanceof List) {
-                    return (List<String>) scope;
-                }
+            try (JsonParser parser = JSON_FACTORY.createParser(Base64.getDecoder().decode(jwtPayload))) {
+                return readScopes(parser);
             // IllegalArgumentException appears when trying to decode Base64
             } catch (IOException|IllegalArgumentException e) {
                 //probably not JWT
@@ -55,4 +74,45 @@ public class JwtScopeHandler implements OperationHandler {
 
         return emptyList();
     }
+
+    // Only reads the top level scope claims of the payload, the other claims are skipped
+    private static List<String> readScopes(JsonParser parser) throws IOException {
+        List<String> scopes = emptyList();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return scopes;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String claim = parser.getCurrentName();
+            parser.nextToken();
+            if ("scope".equals(claim)) {
+                return readScopeClaim(parser);
+            } else if ("scp".equals(claim)) {
+                scopes = readScopeClaim(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return scopes;
+    }
+
+    // A scope claim is either a list of scopes or a space-delimited string of scopes
+    private static List<String> readScopeClaim(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+            String scopes = parser.getText().trim();
+            return scopes.isEmpty() ? emptyList() : unmodifiableList(asList(scopes.split("\\s+")));
+        }
+        if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+            List<String> scopes = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                    scopes.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return unmodifiableList(scopes);
+        }
+        parser.skipChildren();
+        return emptyList();
+    }
 }
@@ -12,7 +12,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 
@@ -24,29 +23,28 @@ import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.li
 public class LinkHandler implements OperationHandler {
 
     @Override
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        return !parameters.getLinks().isEmpty();
+    }
+
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
         List<LinkDescriptorWithOpenAPIType> links = parameters.getLinks();
-        if (!links.isEmpty()) {
-            new LinkSnippetWrapper(parameters.getLinks()).validateLinks(operation);
-
-            Map<String, Object> model = new HashMap<>();
-            List<Map<String, Object>> descriptors = mapDescriptorsToModel(links);
-            if (!descriptors.isEmpty()) {
-                model.put("responseLinksPresent", true);
-                model.put("links", descriptors);
-            }
-            return model;
-        }
+        Map<String, Object> descriptions = new LinkSnippetWrapper(links).validateLinks(operation);
 
-        return emptyMap();
+        List<Map<String, Object>> descriptors = mapDescriptorsToModel(links, descriptions);
+        if (!descriptors.isEmpty()) {
+            model.put("responseLinksPresent", true);
+            model.put("links", descriptors);
+        }
     }
 
-    private List<Map<String, Object>> mapDescriptorsToModel(List<LinkDescriptorWithOpenAPIType> linksDescriptors) {
+    private List<Map<String, Object>> mapDescriptorsToModel(List<LinkDescriptorWithOpenAPIType> linksDescriptors, Map<String, Object> descriptions) {
         return linksDescriptors.stream().map(linkDescriptor -> {
             Map<String, Object> linkMap = new HashMap<>();
             if (!linkDescriptor.isIgnored()) {
                 linkMap.put("name", linkDescriptor.getRel());
-                linkMap.put("description", linkDescriptor.getDescription());
+                linkMap.put("description", descriptions.get(linkDescriptor.getRel()));
                 linkMap.put("operationId", linkDescriptor.getOperationId());
 
                 if(!linkDescriptor.getParameters().isEmpty()) {
@@ -85,9 +83,14 @@ public class LinkHandler implements OperationHandler {
          * That is checking that all documented links exist in the response and also if all existing links are documented
          *
          * @param operation
+         * @return the descriptions by rel, taken from the title of the link when the descriptor has none
          */
-        void validateLinks(Operation operation) {
-            super.createModel(operation);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> validateLinks(Operation operation) {
+            List<Map<String, Object>> links = (List<Map<String, Object>>) super.createModel(operation).get("links");
+            Map<String, Object> descriptions = new HashMap<>();
+            links.forEach(link -> descriptions.put((String) link.get("rel"), link.get("description")));
+            return descriptions;
         }
     }
 }
@@ -0,0 +1,215 @@
+package cc.dille.restdocs.openapi;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the openapi-resource fragment straight to a {@link Writer}, without going through the template.
+ * <p>
+ * The output is the same as the one of {@code default-openapi-resource.snippet} for the same model,
+ * except for the values that the template would turn into invalid YAML: these are double-quoted.
+ */
+class OpenAPIFragmentWriter {
+
+    private static final String INDICATORS = ",[]{}#&*!|>'\"%@`";
+
+    private final Writer writer;
+
+    OpenAPIFragmentWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void write(Map<String, Object> model) throws IOException {
+        key(0, model.get("resource"));
+        key(2, model.get("method"));
+        entry(4, "summary", model.get("summary"));
+        entry(4, "operationId", model.get("operationId"));
+        if (isPresent(model.get("parametersPresent"))) {
+            writeParameters(listOf(model.get("parameters")));
+        }
+        if (isPresent(model.get("requestBodyPresent"))) {
+            line(4, "requestBody:");
+            line(6, "required: true");
+            line(6, "content:");
+            key(8, model.get("contentTypeRequest"));
+            if (isPresent(model.get("requestFieldsPresent"))) {
+                include(10, "schema", model.get("requestSchemaFileName"));
+            }
+            include(10, "example", model.get("requestBodyFileName"));
+        }
+        line(4, "responses:");
+        key(6, model.get("status"));
+        entry(8, "description", model.get("statusDescription"));
+        if (isPresent(model.get("responseHeadersPresent"))) {
+            writeResponseHeaders(listOf(model.get("responseHeaders")));
+        }
+        if (isPresent(model.get("responseLinksPresent"))) {
+            writeLinks(listOf(model.get("links")));
+        }
+        if (isPresent(model.get("responseBodyPresent"))) {
+            line(8, "content:");
+            key(10, model.get("contentTypeResponse"));
+            if (isPresent(model.get("responseFieldsPresent"))) {
+                include(12, "schema", model.get("responseSchemaFileName"));
+            }
+            include(12, "example", model.get("responseBodyFileName"));
+        }
+    }
+
+    private void writeParameters(List<Map<String, Object>> parameters) throws IOException {
+        line(4, "parameters:");
+        for (Map<String, Object> parameter : parameters) {
+            indent(6);
+            writer.append("- name: ").append(scalar(parameter.get("name"))).append('\n');
+            entry(8, "in", parameter.get("in"));
+            entry(8, "description", parameter.get("description"));
+            entry(8, "required", parameter.get("required"));
+            if (isPresent(parameter.get("type"))) {
+                line(8, "schema:");
+                entry(10, "type", parameter.get("type"));
+            }
+            entry(8, "example", parameter.get("example"));
+        }
+    }
+
+    private void writeResponseHeaders(List<Map<String, Object>> headers) throws IOException {
+        line(8, "headers:");
+        for (Map<String, Object> header : headers) {
+            key(10, header.get("name"));
+            entry(12, "description", header.get("description"));
+            entry(12, "example", header.get("example"));
+        }
+    }
+
+    private void writeLinks(List<Map<String, Object>> links) throws IOException {
+        line(8, "links:");
+        for (Map<String, Object> link : links) {
+            key(10, link.get("name"));
+            line(12, "operationId: " + scalar(link.get("operationId")));
+            line(12, "description: " + scalar(link.get("description")));
+            if (isPresent(link.get("linkParametersPresent"))) {
+                line(12, "parameters:");
+                for (Map<String, Object> parameter : listOf(link.get("parameters"))) {
+                    entry(14, scalar(parameter.get("name")), parameter.get("location"));
+                }
+            }
+        }
+    }
+
+    private void line(int indentation, String content) throws IOException {
+        indent(indentation);
+        writer.append(content).append('\n');
+    }
+
+    private void key(int indentation, Object key) throws IOException {
+        indent(indentation);
+        writer.append(scalar(key)).append(":\n");
+    }
+
+    /**
+     * Like a template section around a variable: nothing is written when the value is absent.
+     */
+    private void entry(int indentation, String key, Object value) throws IOException {
+        if (isPresent(value)) {
+            indent(indentation);
+            writer.append(key).append(": ").append(scalar(value)).append('\n');
+        }
+    }
+
+    private void include(int indentation, String key, Object fileName) throws IOException {
+        indent(indentation);
+        writer.append(key).append(": !include '")
+                .append(String.valueOf(fileName).replace("'", "''"))
+                .append("'\n");
+    }
+
+    private void indent(int indentation) throws IOException {
+        for (int i = 0; i < indentation; i++) {
+            writer.append(' ');
+        }
+    }
+
+    private static boolean isPresent(Object value) {
+        return value != null
+                && !Boolean.FALSE.equals(value)
+                && !(value instanceof Collection && ((Collection<?>) value).isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> listOf(Object value) {
+        return (List<Map<String, Object>>) value;
+    }
+
+    static String scalar(Object value) {
+        String text = String.valueOf(value);
+        return isPlainSafe(text) ? text : doubleQuoted(text);
+    }
+
+    /**
+     * Whether the text can be written as a plain scalar in block context and still be read back as the same text.
+     */
+    static boolean isPlainSafe(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        char last = text.charAt(text.length() - 1);
+        if (INDICATORS.indexOf(first) >= 0
+                || ((first == '-' || first == '?' || first == ':') && (text.length() == 1 || isBlank(text.charAt(1))))
+                || isBlank(first) || isBlank(last) || last == ':') {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ':' && isBlank(text.charAt(i + 1))
+                    || c == '#' && isBlank(text.charAt(i - 1))
+                    || !isPrintable(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String doubleQuoted(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (isPrintable(c)) {
+                        quoted.append(c);
+                    } else {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isPrintable(char c) {
+        return c >= 0x20 && c != 0x7f && c != 0x85 && c != 0x2028 && c != 0x2029 && c != 0xfeff
+                && !(c >= 0x80 && c < 0xa0);
+    }
+}
@@ -27,4 +27,13 @@ public abstract class OpenAPIResourceDocumentation {
     public static LinkDescriptorWithOpenAPIType linkWithRel(String rel) {
         return new LinkDescriptorWithOpenAPIType(rel);
     }
+
+    /**
+     * Waits for the snippet files written in the background, and rethrows the first write which failed.
+     * To be called after the last test when the snippets are aggregated in the test JVM, e.g. with Maven's
+     * {@code forkCount=0}, as they are only flushed at JVM shutdown otherwise.
+     */
+    public static void flushPendingWrites() {
+        OpenAPIResourceSnippet.flushPendingWrites();
+    }
 }
@@ -1,48 +1,74 @@
 package cc.dille.restdocs.openapi;
 
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.RENDER;
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.SCHEMA;
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.WRITE;
+import static cc.dille.restdocs.openapi.OpenAPIResourceSnippetParameters.FragmentRenderer.STREAMING;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.springframework.restdocs.config.SnippetConfigurer.DEFAULT_SNIPPET_ENCODING;
 import static org.springframework.restdocs.generate.RestDocumentationGenerator.ATTRIBUTE_NAME_URL_TEMPLATE;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.UncheckedIOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContext;
 import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.snippet.RestDocumentationContextPlaceholderResolverFactory;
 import org.springframework.restdocs.snippet.StandardWriterResolver;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 import org.springframework.restdocs.snippet.WriterResolver;
-import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
-import org.springframework.restdocs.templates.TemplateEngine;
 import org.springframework.restdocs.templates.TemplateFormat;
-import org.springframework.restdocs.templates.mustache.MustacheTemplateEngine;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import cc.dille.restdocs.openapi.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
+import cc.dille.restdocs.openapi.jsonschema.JsonSchemaCache;
 
-public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileNameTrait {
+public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileNameTrait, ContentTypeTrait {
 
     private static final String SNIPPET_NAME = "openapi-resource";
 
+    private static final WriterResolver WRITER_RESOLVER = new StandardWriterResolver(
+            new RestDocumentationContextPlaceholderResolverFactory(), DEFAULT_SNIPPET_ENCODING, new OpenAPITemplateFormat());
+
+    private static final TemplateCache TEMPLATE_CACHE = new TemplateCache(new OpenAPITemplateFormat());
+
+    private static final JsonSchemaCache SCHEMA_CACHE = new JsonSchemaCache();
+
+    private static final DocumentationMetrics METRICS = DocumentationMetrics.load();
+
+    private static final SnippetFileWriter FILE_WRITER = SnippetFileWriter.create();
+
+    static {
+        DocumentationShutdown.register(FILE_WRITER, METRICS);
+    }
+
     private final OpenAPIResourceSnippetParameters parameters;
 
     private final OperationHandlerChain handlerChain;
 
-    private final JsonSchemaFromFieldDescriptorsGenerator jsonSchemasGenerator = new JsonSchemaFromFieldDescriptorsGenerator();
+    private final SnippetFileWriter fileWriter;
 
     OpenAPIResourceSnippet(OpenAPIResourceSnippetParameters parameters) {
+        this(parameters, FILE_WRITER);
+    }
+
+    OpenAPIResourceSnippet(OpenAPIResourceSnippetParameters parameters, SnippetFileWriter fileWriter) {
         super(SNIPPET_NAME, null);
         this.parameters = parameters;
+        this.fileWriter = fileWriter;
 
         handlerChain = new OperationHandlerChain(Arrays.asList(
                 new JwtScopeHandler(),
@@ -50,12 +76,16 @@ public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileName
                 new ResponseHandler(),
                 new LinkHandler(),
                 new ParameterHandler(),
-                new ResponseHeaderHandler()));
+                new ResponseHeaderHandler()), METRICS);
+    }
+
+    static void flushPendingWrites() {
+        FILE_WRITER.flush();
     }
 
     @Override
     protected Map<String, Object> createModel(Operation operation) {
-        Map<String, Object> model = new HashMap<>();
+        Map<String, Object> model = new HashMap<>(OperationHandlerChain.MODEL_CAPACITY);
         model.put("resource", getUriPath(operation));
         model.put("method", operation.getRequest().getMethod().name().toLowerCase());
         model.put("statusDescription", parameters.getStatusDescription());
@@ -63,13 +93,18 @@ public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileName
         model.put("operationId", parameters.getOperationId());
         model.put("status", operation.getResponse().getStatus().value());
 
-        model.putAll(handlerChain.process(operation, parameters));
+        handlerChain.process(operation, parameters, model);
 
         return model;
     }
 
     @Override
     public void document(Operation operation) throws IOException {
+        File snippetsDirectory = getSnippetsDirectory(operation);
+        if (snippetsDirectory != null) {
+            fileWriter.addSnippetsDirectory(snippetsDirectory);
+        }
+
         documentSnippet(operation);
 
         storeRequestBody(operation);
@@ -82,53 +117,108 @@ public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileName
     }
 
     private void documentSnippet(Operation operation) throws IOException {
+        Map<String, Object> model = createModel(operation);
+        if (fileWriter.isAsync()) {
+            // Rendered before the file is opened, so that a failed rendering leaves no file behind
+            StringWriter fragment = new StringWriter();
+            renderSnippet(operation, model, fragment);
+            Writer writer = resolveFragmentWriter(operation);
+            try {
+                fileWriter.write(() -> {
+                    try (Writer fragmentWriter = writer) {
+                        fragmentWriter.write(fragment.toString());
+                    }
+                });
+            } catch (RuntimeException e) {
+                writer.close();
+                throw e;
+            }
+        } else {
+            try (Writer writer = resolveFragmentWriter(operation)) {
+                renderSnippet(operation, model, writer);
+            }
+        }
+    }
+
+    // The file is resolved on the test thread, as its name may depend on the state of the documentation context
+    private Writer resolveFragmentWriter(Operation operation) throws IOException {
+        return WRITER_RESOLVER.resolve(operation.getName(), SNIPPET_NAME,
+                (RestDocumentationContext) operation.getAttributes().get(RestDocumentationContext.class.getName()));
+    }
 
-        WriterResolver writerResolver = new StandardWriterResolver(new RestDocumentationContextPlaceholderResolverFactory(), DEFAULT_SNIPPET_ENCODING, new OpenAPITemplateFormat());
-        try (Writer writer = writerResolver.resolve(operation.getName(), SNIPPET_NAME,
-                (RestDocumentationContext) operation.getAttributes().get(RestDocumentationContext.class.getName()))) {
-            Map<String, Object> model = createModel(operation);
-            TemplateEngine templateEngine = new MustacheTemplateEngine(new StandardTemplateResourceResolver(new OpenAPITemplateFormat()));
-            writer.append(templateEngine.compileTemplate(SNIPPET_NAME).render(model));
+    private void renderSnippet(Operation operation, Map<String, Object> model, Writer writer) throws IOException {
+        long start = System.nanoTime();
+        if (parameters.getFragmentRenderer() == STREAMING) {
+            new OpenAPIFragmentWriter(writer).write(model);
+        } else {
+            writer.append(TEMPLATE_CACHE.getTemplate(SNIPPET_NAME).render(model));
         }
+        METRICS.record(operation.getName(), RENDER, SNIPPET_NAME, System.nanoTime() - start, 0);
     }
 
     private void storeRequestJsonSchema(Operation operation) {
         if (shouldGenerateRequestSchemaFile(operation, parameters)) {
-            storeFile(operation, getRequestSchemaFileName(operation.getName()),
-                    jsonSchemasGenerator.generateSchema(parameters.getRequestFields()));
+            storeSchemaFile(operation, getRequestSchemaFileName(operation.getName()), "request", parameters.getRequestFields());
         }
     }
 
     private void storeResponseJsonSchema(Operation operation) {
         if (shouldGenerateResponseSchemaFile(operation, parameters)) {
-            storeFile(operation, getResponseSchemaFileName(operation.getName()),
-                    jsonSchemasGenerator.generateSchema(parameters.getResponseFieldsWithLinks()));
+            storeSchemaFile(operation, getResponseSchemaFileName(operation.getName()), "response", parameters.getResponseFieldsWithLinks());
         }
     }
 
     private void storeRequestBody(Operation operation) {
-        if (!StringUtils.isEmpty(operation.getRequest().getContentAsString())) {
-            storeFile(operation, getRequestFileName(operation.getName()), operation.getRequest().getContentAsString());
+        byte[] content = operation.getRequest().getContent();
+        if (content.length > 0) {
+            storeFile(operation, getRequestFileName(operation.getName()), "request-body", utf8Content(content, operation.getRequest().getHeaders()));
         }
     }
 
     private void storeResponseBody(Operation operation) {
-        if (!StringUtils.isEmpty(operation.getResponse().getContentAsString())) {
-            storeFile(operation, getResponseFileName(operation.getName()), operation.getResponse().getContentAsString());
+        byte[] content = operation.getResponse().getContent();
+        if (content.length > 0) {
+            storeFile(operation, getResponseFileName(operation.getName()), "response-body", utf8Content(content, operation.getResponse().getHeaders()));
         }
     }
 
-    private void storeFile(Operation operation, String filename, String content) {
+    // The aggregation reads the bodies as UTF-8: only the bodies in another charset are decoded and encoded again,
+    // the bodies of an invalid content type or charset are stored as they are
+    private byte[] utf8Content(byte[] content, HttpHeaders headers) {
+        MediaType contentType = getContentType(headers);
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        return charset == null || UTF_8.equals(charset) ? content : new String(content, charset).getBytes(UTF_8);
+    }
+
+    private void storeFile(Operation operation, String filename, String kind, byte[] content) {
         File output = getOutputFile(operation, filename);
         assert output != null;
-        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(output.toPath()))) {
-            writer.append(content);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+        fileWriter.write(() -> {
+            long start = System.nanoTime();
+            Files.write(output.toPath(), content);
+            METRICS.record(operation.getName(), WRITE, kind, System.nanoTime() - start, content.length);
+        });
+    }
+
+    private void storeSchemaFile(Operation operation, String filename, String body, List<FieldDescriptor> fieldDescriptors) {
+        File output = getOutputFile(operation, filename);
+        assert output != null;
+        long start = System.nanoTime();
+        byte[] schema = SCHEMA_CACHE.getSchema(fieldDescriptors);
+        METRICS.record(operation.getName(), SCHEMA, body, System.nanoTime() - start, 0);
+        fileWriter.write(() -> {
+            long writeStart = System.nanoTime();
+            Files.write(output.toPath(), schema);
+            METRICS.record(operation.getName(), WRITE, body + "-schema", System.nanoTime() - writeStart, schema.length);
+        });
     }
 
     private File getOutputFile(Operation operation, String filename) {
+        File snippetsDirectory = getSnippetsDirectory(operation);
+        return snippetsDirectory == null ? null : new File(snippetsDirectory, operation.getName() + "/" + filename);
+    }
+
+    private File getSnippetsDirectory(Operation operation) {
         Object context = operation.getAttributes().get(RestDocumentationContext.class.getName());
         try {
             //use reflection here because of binary incompatibility between spring-restdocs 1 and 2
@@ -138,8 +228,7 @@ public class OpenAPIResourceSnippet extends TemplatedSnippet implements FileName
             //we can remove the use of reflection when we drop support for spring-restdocs 1
             Method getOutputDirectory = context.getClass().getDeclaredMethod("getOutputDirectory");
             getOutputDirectory.setAccessible(true);
-            File outputFile = (File) getOutputDirectory.invoke(context);
-            return new File(outputFile, operation.getName() + "/" + filename);
+            return (File) getOutputDirectory.invoke(context);
         } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
             return null;
         }
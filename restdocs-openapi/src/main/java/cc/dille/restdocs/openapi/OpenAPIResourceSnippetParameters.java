@@ -40,6 +40,8 @@ public class OpenAPIResourceSnippetParameters {
     private final List<LinkDescriptorWithOpenAPIType> links;
     private final List<ParameterDescriptorWithOpenAPIType> requestParameters;
     private final List<HeaderDescriptor> responseHeaders;
+    // fragmentRenderer chooses how the openapi-resource fragment is written
+    private final FragmentRenderer fragmentRenderer;
 
     List<FieldDescriptor> getResponseFieldsWithLinks() {
         List<FieldDescriptor> combinedDescriptors = new ArrayList<>(getResponseFields());
@@ -81,6 +83,17 @@ public class OpenAPIResourceSnippetParameters {
                 .orElseGet(() -> fieldWithPath(path));
     }
 
+    public enum FragmentRenderer {
+        /**
+         * Render the fragment with the {@code openapi-resource} template, which can be overridden.
+         */
+        TEMPLATE,
+        /**
+         * Write the fragment directly, quoting the values that are not valid as plain YAML.
+         */
+        STREAMING
+    }
+
     public static class OpenAPIResourceSnippetParametersBuilder {
 
         private List<FieldDescriptor> requestFields = new ArrayList<>();
@@ -88,6 +101,7 @@ public class OpenAPIResourceSnippetParameters {
         private List<LinkDescriptorWithOpenAPIType> links = new ArrayList<>();
         private List<ParameterDescriptorWithOpenAPIType> requestParameters = new ArrayList<>();
         private List<HeaderDescriptor> responseHeaders = new ArrayList<>();
+        private FragmentRenderer fragmentRenderer = FragmentRenderer.TEMPLATE;
 
         public OpenAPIResourceSnippetParametersBuilder requestFields(FieldDescriptor... requestFields) {
             this.requestFields.addAll(Arrays.asList(requestFields));
@@ -1,10 +1,32 @@
 package cc.dille.restdocs.openapi;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.restdocs.operation.Operation;
 
 interface OperationHandler {
 
-    Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters);
+    /**
+     * A cheap check of whether the handler has anything to add for the operation, the handler is skipped otherwise.
+     */
+    default boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        return true;
+    }
+
+    /**
+     * Adds the model of the operation to the model shared by all the handlers, only called when {@link #supports} holds.
+     */
+    void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model);
+
+    /**
+     * The model of the handler on its own.
+     */
+    default Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        Map<String, Object> model = new HashMap<>();
+        if (supports(operation, parameters)) {
+            addModel(operation, parameters, model);
+        }
+        return model;
+    }
 }
@@ -1,6 +1,6 @@
 package cc.dille.restdocs.openapi;
 
-import static java.util.Collections.emptyMap;
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.HANDLER;
 
 import java.util.HashMap;
 import java.util.List;
@@ -14,16 +14,35 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OperationHandlerChain {
 
+    // Room for the model of the snippet and of all the handlers without resizing
+    static final int MODEL_CAPACITY = 64;
+
     @NonNull
     private final List<OperationHandler> operationHandlers;
 
+    @NonNull
+    private final DocumentationMetrics metrics;
+
+    public OperationHandlerChain(List<OperationHandler> operationHandlers) {
+        this(operationHandlers, DocumentationMetrics.NONE);
+    }
+
     public Map<String, Object> process(Operation operation, OpenAPIResourceSnippetParameters parameters) {
-        return operationHandlers.stream().map(handler -> handler.generateModel(operation, parameters))
-                .reduce((m, m1) -> {
-                    Map<String, Object> combined = new HashMap<>();
-                    combined.putAll(m);
-                    combined.putAll(m1);
-                    return combined;
-                }).orElse(emptyMap());
+        Map<String, Object> model = new HashMap<>(MODEL_CAPACITY);
+        process(operation, parameters, model);
+        return model;
+    }
+
+    /**
+     * Adds the model of each handler supporting the operation to the given model, in the order of the handlers.
+     */
+    public void process(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
+        for (OperationHandler handler : operationHandlers) {
+            if (handler.supports(operation, parameters)) {
+                long start = System.nanoTime();
+                handler.addModel(operation, parameters, model);
+                metrics.record(operation.getName(), HANDLER, handler.getClass().getSimpleName(), System.nanoTime() - start, 0);
+            }
+        }
     }
 }
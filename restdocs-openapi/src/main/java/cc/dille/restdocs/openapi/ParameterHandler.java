@@ -11,7 +11,6 @@ import org.springframework.util.MultiValueMap;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
@@ -19,37 +18,35 @@ import static org.springframework.restdocs.request.RequestDocumentation.paramete
 @RequiredArgsConstructor
 class ParameterHandler implements OperationHandler {
 
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters snippetParameters) {
-        List<ParameterDescriptorWithOpenAPIType> parameters = snippetParameters.getRequestParameters();
-        if (!parameters.isEmpty()) {
-            List<ParameterDescriptorWithOpenAPIType> filteredParameters;
-
-            filteredParameters = parameters.stream().filter(p -> p.getIn().equals("header")).collect(Collectors.toList());
-            if (!filteredParameters.isEmpty()) {
-                new RequestHeaderSnippetValidator(filteredParameters).validate(operation);
-            }
-            filteredParameters = parameters.stream().filter(p -> p.getIn().equals("path")).collect(Collectors.toList());
-            if (!filteredParameters.isEmpty()) {
-                new PathParameterSnippetWrapper(filteredParameters).validate(operation);
-            }
-            filteredParameters = parameters.stream().filter(p -> p.getIn().equals("query")).collect(Collectors.toList());
-            if (!filteredParameters.isEmpty()) {
-                new RequestParameterSnippetWrapper(filteredParameters).validate(operation);
-            }
-
-            List<Map<String, String>> descriptors = mapDescriptorsToModel(parameters, prepareParameters(operation.getRequest().getHeaders()));
+    @Override
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters snippetParameters) {
+        return !snippetParameters.getRequestParameters().isEmpty();
+    }
 
-            Map<String, Object> model = new HashMap<>();
-            if (!descriptors.isEmpty()) {
-                model.put("parametersPresent", true);
-                model.put("parameters", descriptors);
-            }
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters snippetParameters, Map<String, Object> model) {
+        List<ParameterDescriptorWithOpenAPIType> parameters = snippetParameters.getRequestParameters();
+        List<ParameterDescriptorWithOpenAPIType> filteredParameters;
 
-            return model;
+        filteredParameters = parameters.stream().filter(p -> p.getIn().equals("header")).collect(Collectors.toList());
+        if (!filteredParameters.isEmpty()) {
+            new RequestHeaderSnippetValidator(filteredParameters).validate(operation);
+        }
+        filteredParameters = parameters.stream().filter(p -> p.getIn().equals("path")).collect(Collectors.toList());
+        if (!filteredParameters.isEmpty()) {
+            new PathParameterSnippetWrapper(filteredParameters).validate(operation);
+        }
+        filteredParameters = parameters.stream().filter(p -> p.getIn().equals("query")).collect(Collectors.toList());
+        if (!filteredParameters.isEmpty()) {
+            new RequestParameterSnippetWrapper(filteredParameters).validate(operation);
         }
 
+        List<Map<String, String>> descriptors = mapDescriptorsToModel(parameters, prepareParameters(operation.getRequest().getHeaders()));
 
-        return emptyMap();
+        if (!descriptors.isEmpty()) {
+            model.put("parametersPresent", true);
+            model.put("parameters", descriptors);
+        }
     }
 
     private Map<String, String> prepareParameters(MultiValueMap<String, String> rawParameters) {
@@ -1,9 +1,5 @@
 package cc.dille.restdocs.openapi;
 
-import static java.util.Collections.emptyMap;
-import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
-
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,37 +7,29 @@ import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.RequestFieldsSnippet;
-import org.springframework.util.StringUtils;
 
-public class RequestHandler implements OperationHandler, FileNameTrait {
+public class RequestHandler implements OperationHandler, FileNameTrait, ContentTypeTrait {
+
+    @Override
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        return operation.getRequest().getContent().length > 0;
+    }
 
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
         final OperationRequest request = operation.getRequest();
 
-        if (!StringUtils.isEmpty(request.getContentAsString())) {
-            Map<String, Object> model = new HashMap<>();
-            model.put("requestBodyFileName", getRequestFileName(operation.getName()));
-            model.put("requestBodyPresent", true);
-            model.put("contentTypeRequest", getContentTypeOrDefault(request));
-            // Fill requestBodyRequired here ?
-            // Fill requestBodyDescription ?
-            if (!parameters.getRequestFields().isEmpty()) {
-                validateRequestFieldsAndInferTypeInformation(operation, parameters);
-                model.put("requestFieldsPresent", true);
-                if (shouldGenerateRequestSchemaFile(operation, parameters)) {
-                    model.put("requestSchemaFileName", getRequestSchemaFileName(operation.getName()));
-                }
+        model.put("requestBodyFileName", getRequestFileName(operation.getName()));
+        model.put("requestBodyPresent", true);
+        model.put("contentTypeRequest", getContentTypeOrDefault(request.getHeaders()));
+        // Fill requestBodyRequired here ?
+        // Fill requestBodyDescription ?
+        if (!parameters.getRequestFields().isEmpty()) {
+            validateRequestFieldsAndInferTypeInformation(operation, parameters);
+            model.put("requestFieldsPresent", true);
+            if (shouldGenerateRequestSchemaFile(operation, parameters)) {
+                model.put("requestSchemaFileName", getRequestSchemaFileName(operation.getName()));
             }
-            return model;
-        }
-        return emptyMap();
-    }
-
-    private String getContentTypeOrDefault(OperationRequest request) {
-        if (request.getHeaders().getContentType() != null) {
-            return request.getHeaders().getContentType().getType() + "/" + request.getHeaders().getContentType().getSubtype();
-        } else {
-            return APPLICATION_JSON_VALUE;
         }
     }
 
@@ -1,9 +1,5 @@
 package cc.dille.restdocs.openapi;
 
-import static java.util.Collections.emptyMap;
-import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
-
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,34 +7,26 @@ import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationResponse;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.ResponseFieldsSnippet;
-import org.springframework.util.StringUtils;
 
-public class ResponseHandler implements OperationHandler, FileNameTrait {
+public class ResponseHandler implements OperationHandler, FileNameTrait, ContentTypeTrait {
 
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
-        final OperationResponse response = operation.getResponse();
-        if (!StringUtils.isEmpty(response.getContentAsString())) {
-            Map<String, Object> model = new HashMap<>();
-            model.put("responseBodyFileName", getResponseFileName(operation.getName()));
-            model.put("responseBodyPresent", true);
-            model.put("contentTypeResponse", getContentTypeOrDefault(response));
-            if (!parameters.getResponseFields().isEmpty()) {
-                validateResponseFieldsAndInferTypeInformation(operation, parameters);
-                model.put("responseFieldsPresent", true);
-                if (shouldGenerateResponseSchemaFile(operation, parameters)) {
-                    model.put("responseSchemaFileName", getResponseSchemaFileName(operation.getName()));
-                }
-            }
-            return model;
-        }
-        return emptyMap();
+    @Override
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        return operation.getResponse().getContent().length > 0;
     }
 
-    private String getContentTypeOrDefault(OperationResponse response) {
-        if (response.getHeaders().getContentType() != null) {
-            return response.getHeaders().getContentType().getType() + "/" + response.getHeaders().getContentType().getSubtype();
-        } else {
-            return APPLICATION_JSON_VALUE;
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
+        final OperationResponse response = operation.getResponse();
+        model.put("responseBodyFileName", getResponseFileName(operation.getName()));
+        model.put("responseBodyPresent", true);
+        model.put("contentTypeResponse", getContentTypeOrDefault(response.getHeaders()));
+        if (!parameters.getResponseFields().isEmpty()) {
+            validateResponseFieldsAndInferTypeInformation(operation, parameters);
+            model.put("responseFieldsPresent", true);
+            if (shouldGenerateResponseSchemaFile(operation, parameters)) {
+                model.put("responseSchemaFileName", getResponseSchemaFileName(operation.getName()));
+            }
         }
     }
 
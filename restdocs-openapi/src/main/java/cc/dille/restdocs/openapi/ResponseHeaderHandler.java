@@ -10,23 +10,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
 
 @RequiredArgsConstructor
 class ResponseHeaderHandler implements OperationHandler {
 
     @Override
-    public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+    public boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+        return !parameters.getResponseHeaders().isEmpty();
+    }
+
+    @Override
+    public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
         List<HeaderDescriptor> headers = parameters.getResponseHeaders();
-        if (!headers.isEmpty()) {
-            new ResponseHeaderHandler.ResponseHeaderSnippetValidator(headers).validateHeaders(operation);
-            Map<String, Object> model = new HashMap<>();
-            model.put("responseHeadersPresent", true);
-            model.put("responseHeaders", mapDescriptorsToModel(headers, operation.getResponse().getHeaders()));
-            return model;
-        }
-        return emptyMap();
+        new ResponseHeaderHandler.ResponseHeaderSnippetValidator(headers).validateHeaders(operation);
+        model.put("responseHeadersPresent", true);
+        model.put("responseHeaders", mapDescriptorsToModel(headers, operation.getResponse().getHeaders()));
     }
 
     private List<Map<String, String>> mapDescriptorsToModel(List<HeaderDescriptor> headerDescriptors, HttpHeaders presentHeaders) {
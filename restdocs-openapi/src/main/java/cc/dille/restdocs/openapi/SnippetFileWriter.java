@@ -0,0 +1,161 @@
+package cc.dille.restdocs.openapi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes the files of the snippets, on the test thread or, when the {@value #ASYNC_PROPERTY} system property is
+ * true, on a few background threads.
+ * <p>
+ * The background writes are queued in a bounded queue: once it is full, the test thread writes its files itself.
+ * The pending writes are flushed at JVM shutdown by the {@link DocumentationShutdown}, or before by
+ * {@link OpenAPIResourceDocumentation#flushPendingWrites()}, and a failed write is rethrown by the next write or flush.
+ * An aggregation running in the test JVM must flush them itself, as the shutdown comes after it.
+ * <p>
+ * As no write follows the flush at shutdown, its failure is reported in a {@value #FAILURE_FILE_NAME} file of the
+ * snippets directories instead, on which the aggregation fails.
+ */
+class SnippetFileWriter {
+
+    static final String ASYNC_PROPERTY = "restdocs-openapi.asyncWrites";
+
+    static final String FAILURE_FILE_NAME = "restdocs-openapi-write-failure.txt";
+
+    private static final int THREAD_COUNT = 2;
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Object lock = new Object();
+
+    private int pendingWrites;
+
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private final Set<File> snippetsDirectories = ConcurrentHashMap.newKeySet();
+
+    private SnippetFileWriter(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    static SnippetFileWriter create() {
+        return Boolean.getBoolean(ASYNC_PROPERTY) ? async() : sync();
+    }
+
+    static SnippetFileWriter sync() {
+        return new SnippetFileWriter(null);
+    }
+
+    static SnippetFileWriter async() {
+        return new SnippetFileWriter(new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), new WriterThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    boolean isAsync() {
+        return executor != null;
+    }
+
+    /**
+     * Adds the directory of the next snippets, where the failure of the last writes would be reported,
+     * and deletes the failure reported there by a previous run.
+     */
+    void addSnippetsDirectory(File snippetsDirectory) {
+        if (executor != null && snippetsDirectories.add(snippetsDirectory)) {
+            try {
+                Files.deleteIfExists(new File(snippetsDirectory, FAILURE_FILE_NAME).toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    void write(FileWrite write) {
+        rethrowFailure();
+        if (executor == null) {
+            try {
+                write.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        synchronized (lock) {
+            pendingWrites++;
+        }
+        executor.execute(() -> {
+            try {
+                write.write();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                synchronized (lock) {
+                    if (--pendingWrites == 0) {
+                        lock.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for the pending writes.
+     */
+    void flush() {
+        synchronized (lock) {
+            while (pendingWrites > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        rethrowFailure();
+    }
+
+    void reportFailure(Throwable failure) {
+        for (File snippetsDirectory : snippetsDirectories) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(new File(snippetsDirectory, FAILURE_FILE_NAME).toPath()))) {
+                failure.printStackTrace(writer);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private void rethrowFailure() {
+        IOException e = failure.getAndSet(null);
+        if (e != null) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface FileWrite {
+        void write() throws IOException;
+    }
+
+    private static class WriterThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "restdocs-openapi-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package cc.dille.restdocs.openapi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.core.io.Resource;
+import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
+import org.springframework.restdocs.templates.Template;
+import org.springframework.restdocs.templates.TemplateEngine;
+import org.springframework.restdocs.templates.TemplateFormat;
+import org.springframework.restdocs.templates.TemplateResourceResolver;
+import org.springframework.restdocs.templates.mustache.MustacheTemplateEngine;
+
+/**
+ * Compiled templates shared by all snippets, keyed by template format and resolved template resource.
+ * <p>
+ * The template resource is resolved on every lookup, so a custom template or another class loader
+ * gets its own entry instead of the template compiled first.
+ */
+class TemplateCache {
+
+    private static final ConcurrentMap<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final TemplateFormat templateFormat;
+
+    private final TemplateResourceResolver templateResourceResolver;
+
+    TemplateCache(TemplateFormat templateFormat) {
+        this.templateFormat = templateFormat;
+        this.templateResourceResolver = new StandardTemplateResourceResolver(templateFormat);
+    }
+
+    Template getTemplate(String name) {
+        Resource templateResource = templateResourceResolver.resolveTemplateResource(name);
+        return TEMPLATES.computeIfAbsent(key(templateResource), key -> compileTemplate(name, templateResource));
+    }
+
+    // Compiled from the resource of the key, not from the name resolved a second time
+    private Template compileTemplate(String name, Resource templateResource) {
+        TemplateEngine templateEngine = new MustacheTemplateEngine(resolvedName -> templateResource);
+        try {
+            return templateEngine.compileTemplate(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String key(Resource templateResource) {
+        String location;
+        try {
+            location = templateResource.getURL().toString();
+        } catch (IOException e) {
+            location = templateResource.getDescription();
+        }
+        return templateFormat.getId() + ":" + location;
+    }
+}
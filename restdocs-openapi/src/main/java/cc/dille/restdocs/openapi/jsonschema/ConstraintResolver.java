@@ -11,6 +11,8 @@ import java.util.stream.Stream;
 import org.springframework.restdocs.constraints.Constraint;
 import org.springframework.restdocs.payload.FieldDescriptor;
 
+import lombok.Value;
+
 public class ConstraintResolver {
 
 
@@ -35,31 +37,31 @@ public class ConstraintResolver {
         REQUIRED_CONSTRAINTS.addAll(NOT_BLANK_CONSTRAINTS);
     }
 
-    static Integer minLengthString(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream().
-                filter(constraint -> NOT_EMPTY_CONSTRAINTS.contains(constraint.getName())
-                        || NOT_BLANK_CONSTRAINTS.contains(constraint.getName())
-                        || LENGTH_CONSTRAINT.equals(constraint.getName()))
-                .findFirst()
-                .map(constraint -> LENGTH_CONSTRAINT.equals(constraint.getName()) ? (int) constraint.getConfiguration().get("min") : 1)
-                .orElse(null);
-    }
-
-    static Integer maxLengthString(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream().
-                filter(constraint -> LENGTH_CONSTRAINT.equals(constraint.getName()))
-                .findFirst()
-                .map(constraint -> (int) constraint.getConfiguration().get("max"))
-                .orElse(null);
-    }
-
-    static boolean isRequired(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream()
-                .anyMatch(constraint -> REQUIRED_CONSTRAINTS.contains(constraint.getName()));
+    /**
+     * Resolves all the schema keywords of the field with a single pass over its constraints.
+     */
+    static ConstraintProfile profile(FieldDescriptor fieldDescriptor) {
+        boolean required = false;
+        Constraint minLengthConstraint = null;
+        Constraint lengthConstraint = null;
+        for (Constraint constraint : findConstraints(fieldDescriptor)) {
+            String name = constraint.getName();
+            required |= REQUIRED_CONSTRAINTS.contains(name);
+            if (minLengthConstraint == null && (NOT_EMPTY_CONSTRAINTS.contains(name) || NOT_BLANK_CONSTRAINTS.contains(name) || LENGTH_CONSTRAINT.equals(name))) {
+                minLengthConstraint = constraint;
+            }
+            if (lengthConstraint == null && LENGTH_CONSTRAINT.equals(name)) {
+                lengthConstraint = constraint;
+            }
+        }
+        Integer minLength = minLengthConstraint == null ? null
+                : LENGTH_CONSTRAINT.equals(minLengthConstraint.getName()) ? (Integer) minLengthConstraint.getConfiguration().get("min") : Integer.valueOf(1);
+        Integer maxLength = lengthConstraint == null ? null : (Integer) lengthConstraint.getConfiguration().get("max");
+        return new ConstraintProfile(required, minLength, maxLength);
     }
 
     @SuppressWarnings("unchecked")
-    private static List<Constraint> findConstraints(FieldDescriptor fieldDescriptor) {
+    static List<Constraint> findConstraints(FieldDescriptor fieldDescriptor) {
         return fieldDescriptor.getAttributes().values().stream()
                 .filter(value -> value instanceof List)
                 .map(value -> (List) value)
@@ -67,4 +69,11 @@ public class ConstraintResolver {
                 .flatMap(list -> (Stream<Constraint>) list.stream())
                 .collect(toList());
     }
+
+    @Value
+    static class ConstraintProfile {
+        boolean required;
+        Integer minLength;
+        Integer maxLength;
+    }
 }
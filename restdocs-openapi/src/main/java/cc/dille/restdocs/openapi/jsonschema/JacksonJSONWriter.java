@@ -0,0 +1,132 @@
+package cc.dille.restdocs.openapi.jsonschema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A {@link JSONWriter} for the everit schema printer that writes through a pretty printing Jackson generator,
+ * so that the schema is formatted while it is printed.
+ */
+class JacksonJSONWriter extends JSONWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+
+    JacksonJSONWriter(Writer writer) {
+        super(writer);
+        try {
+            this.generator = JSON_FACTORY.createGenerator(writer).useDefaultPrettyPrinter();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public JSONWriter array() {
+        return write(JsonGenerator::writeStartArray);
+    }
+
+    @Override
+    public JSONWriter endArray() {
+        return write(JsonGenerator::writeEndArray);
+    }
+
+    @Override
+    public JSONWriter object() {
+        return write(JsonGenerator::writeStartObject);
+    }
+
+    @Override
+    public JSONWriter endObject() {
+        return write(JsonGenerator::writeEndObject);
+    }
+
+    @Override
+    public JSONWriter key(String key) {
+        return write(generator -> generator.writeFieldName(key));
+    }
+
+    @Override
+    public JSONWriter value(boolean value) {
+        return write(generator -> generator.writeBoolean(value));
+    }
+
+    @Override
+    public JSONWriter value(double value) {
+        return value(Double.valueOf(value));
+    }
+
+    @Override
+    public JSONWriter value(long value) {
+        return write(generator -> generator.writeNumber(value));
+    }
+
+    @Override
+    public JSONWriter value(Object value) {
+        return write(generator -> writeValue(value));
+    }
+
+    void flush() {
+        write(JsonGenerator::flush);
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            // Same number text as org.json, e.g. 1 for 1.0
+            generator.writeNumber(JSONObject.numberToString((Number) value));
+        } else if (value instanceof Iterable) {
+            generator.writeStartArray();
+            for (Object item : (Iterable<?>) value) {
+                writeValue(item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            generator.writeStartObject();
+            for (String key : jsonObject.keySet()) {
+                generator.writeFieldName(key);
+                writeValue(jsonObject.get(key));
+            }
+            generator.writeEndObject();
+        } else {
+            generator.writeRawValue(JSONObject.valueToString(value));
+        }
+    }
+
+    private JSONWriter write(GeneratorCall call) {
+        try {
+            call.accept(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    @FunctionalInterface
+    private interface GeneratorCall {
+        void accept(JsonGenerator generator) throws IOException;
+    }
+}
@@ -1,7 +1,11 @@
 package cc.dille.restdocs.openapi.jsonschema;
 
+import static java.util.Collections.unmodifiableList;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,28 +19,37 @@ final class JsonFieldPath {
 	private static final Pattern ARRAY_INDEX_PATTERN = Pattern
 			.compile("\\[([0-9]+|\\*){0,1}\\]");
 
+	private static final int MAX_COMPILED_PATHS = 10_000;
+
+	/**
+	 * Compiled paths shared by all generators, as the same descriptors are documented over and over.
+	 * Once full, the paths not seen yet are compiled without being cached.
+	 */
+	private static final ConcurrentMap<String, CompiledPath> COMPILED_PATHS = new ConcurrentHashMap<>();
+
 	private FieldDescriptor fieldDescriptor;
 
 	private final List<String> segments;
 
+	private final boolean[] arraySegments;
 
-	private JsonFieldPath(List<String> segments, FieldDescriptor descriptor) {
+
+	private JsonFieldPath(CompiledPath compiledPath, FieldDescriptor descriptor) {
 		this.fieldDescriptor = descriptor;
-		this.segments = segments;
+		this.segments = compiledPath.segments;
+		this.arraySegments = compiledPath.arraySegments;
 	}
 
 	FieldDescriptor getFieldDescriptor() {
 		return fieldDescriptor;
 	}
 
-	List<String> remainingSegments(List<String> traversedSegments) {
-		List<String> result = new ArrayList<>();
-		for (int i = 0; i <= segments.size(); i++) {
-			if (traversedSegments.size() <= i || !traversedSegments.get(i).equals(segments.get(i))) {
-				return segments.subList(i, segments.size());
-			}
-		}
-		return result;
+	List<String> getSegments() {
+		return segments;
+	}
+
+	boolean isArraySegment(int index) {
+		return arraySegments[index];
 	}
 
 	@Override
@@ -45,11 +58,21 @@ final class JsonFieldPath {
 	}
 
 	static JsonFieldPath compile(FieldDescriptor descriptor) {
-		List<String> segments = extractSegments(descriptor.getPath());
-		return new JsonFieldPath(segments, descriptor);
+		return new JsonFieldPath(compiledPath(descriptor.getPath()), descriptor);
+	}
+
+	private static CompiledPath compiledPath(String path) {
+		CompiledPath compiledPath = COMPILED_PATHS.get(path);
+		if (compiledPath == null) {
+			compiledPath = new CompiledPath(extractSegments(path));
+			if (COMPILED_PATHS.size() < MAX_COMPILED_PATHS) {
+				COMPILED_PATHS.putIfAbsent(path, compiledPath);
+			}
+		}
+		return compiledPath;
 	}
 
-	static boolean isArraySegment(String segment) {
+	private static boolean isArraySegment(String segment) {
 		return ARRAY_INDEX_PATTERN.matcher(segment).find();
 	}
 
@@ -88,4 +111,21 @@ final class JsonFieldPath {
 		}
 		return segments;
 	}
-}
\ No newline at end of file
+
+	private static final class CompiledPath {
+
+		private final List<String> segments;
+
+		private final boolean[] arraySegments;
+
+		private CompiledPath(List<String> segments) {
+			List<String> internedSegments = new ArrayList<>(segments.size());
+			this.arraySegments = new boolean[segments.size()];
+			for (int i = 0; i < segments.size(); i++) {
+				internedSegments.add(segments.get(i).intern());
+				arraySegments[i] = isArraySegment(segments.get(i));
+			}
+			this.segments = unmodifiableList(internedSegments);
+		}
+	}
+}
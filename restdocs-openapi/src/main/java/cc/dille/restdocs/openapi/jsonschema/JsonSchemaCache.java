@@ -0,0 +1,201 @@
+package cc.dille.restdocs.openapi.jsonschema;
+
+import static cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.findConstraints;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.restdocs.constraints.Constraint;
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+/**
+ * Schemas generated from field descriptors, keyed by a fingerprint of the descriptors, so that the operations
+ * documenting the same fields share their schema.
+ * <p>
+ * The most recently used schemas are kept in memory. When the {@value #DIRECTORY_PROPERTY} system property
+ * names a directory, e.g. in the build directory, the schemas are stored there as well and reused by the
+ * other test JVMs and the next builds.
+ */
+public class JsonSchemaCache {
+
+    public static final String DIRECTORY_PROPERTY = "restdocs-openapi.schemaCacheDirectory";
+
+    // Changes whenever the generated schemas change, so that the stored ones are not reused
+    private static final int SCHEMA_VERSION = 1;
+
+    private static final int MAX_CACHED_SCHEMAS = 256;
+
+    private final Map<String, byte[]> schemas = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_CACHED_SCHEMAS;
+        }
+    });
+
+    private final JsonSchemaFromFieldDescriptorsGenerator generator;
+
+    private final Path directory;
+
+    public JsonSchemaCache() {
+        this(new JsonSchemaFromFieldDescriptorsGenerator(), directoryFromSystemProperty());
+    }
+
+    JsonSchemaCache(JsonSchemaFromFieldDescriptorsGenerator generator, Path directory) {
+        this.generator = generator;
+        this.directory = directory;
+    }
+
+    /**
+     * The schema of the descriptors, as UTF-8 bytes which must not be modified.
+     */
+    public byte[] getSchema(List<FieldDescriptor> fieldDescriptors) {
+        String fingerprint = fingerprint(fieldDescriptors);
+        byte[] schema = schemas.get(fingerprint);
+        if (schema == null) {
+            schema = loadSchema(fingerprint);
+            if (schema == null) {
+                schema = generateSchema(fieldDescriptors);
+                storeSchema(fingerprint, schema);
+            }
+            schemas.put(fingerprint, schema);
+        }
+        return schema;
+    }
+
+    private byte[] generateSchema(List<FieldDescriptor> fieldDescriptors) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(output, UTF_8)) {
+            generator.generateSchema(fieldDescriptors, null, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] loadSchema(String fingerprint) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(directory.resolve(fingerprint + ".json"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void storeSchema(String fingerprint, byte[] schema) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, fingerprint, ".tmp");
+            Files.write(temporaryFile, schema);
+            Files.move(temporaryFile, directory.resolve(fingerprint + ".json"), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The schema is generated again next time
+        }
+    }
+
+    static String fingerprint(List<FieldDescriptor> fieldDescriptors) {
+        MessageDigest digest = sha256();
+        digest.update(ByteBuffer.allocate(4).putInt(SCHEMA_VERSION).array());
+        for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+            update(digest, fieldDescriptor.getPath());
+            update(digest, fieldDescriptor.getType());
+            update(digest, fieldDescriptor.isOptional());
+            update(digest, fieldDescriptor.isIgnored());
+            update(digest, fieldDescriptor.getDescription());
+            List<Constraint> constraints = findConstraints(fieldDescriptor);
+            update(digest, constraints.size());
+            for (Constraint constraint : constraints) {
+                update(digest, constraint.getName());
+                update(digest, canonical(constraint.getConfiguration()));
+            }
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * The text of a constraint configuration, the same in every JVM: arrays and collections are written element
+     * by element, maps sorted by key, and classes by name, as the {@code toString} of the {@code Class[]} of
+     * {@code groups} and {@code payload} holds an identity hash.
+     */
+    static String canonical(Object value) {
+        StringBuilder text = new StringBuilder();
+        appendCanonical(text, value);
+        return text.toString();
+    }
+
+    private static void appendCanonical(StringBuilder text, Object value) {
+        if (value instanceof Class) {
+            text.append(((Class<?>) value).getName());
+        } else if (value != null && value.getClass().isArray()) {
+            text.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                appendCanonical(text, Array.get(value, i));
+            }
+            text.append(']');
+        } else if (value instanceof Collection) {
+            appendCanonical(text, ((Collection<?>) value).toArray());
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((key, entryValue) -> sorted.put(String.valueOf(key), entryValue));
+            text.append('{');
+            String separator = "";
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                text.append(separator).append(entry.getKey()).append('=');
+                appendCanonical(text, entry.getValue());
+                separator = ",";
+            }
+            text.append('}');
+        } else {
+            text.append(value);
+        }
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        byte[] bytes = String.valueOf(value).getBytes(UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path directoryFromSystemProperty() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return directory == null || directory.isEmpty() ? null : Paths.get(directory);
+    }
+}
@@ -1,20 +1,13 @@
 package cc.dille.restdocs.openapi.jsonschema;
 
-import static cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.isRequired;
-import static cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.maxLengthString;
-import static cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.minLengthString;
-import static cc.dille.restdocs.openapi.jsonschema.JsonFieldPath.isArraySegment;
-import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.groupingBy;
+import static cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.profile;
 import static java.util.stream.Collectors.toList;
 
-import java.io.IOException;
 import java.io.StringWriter;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
+import java.io.Writer;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.everit.json.schema.ArraySchema;
@@ -25,11 +18,10 @@ import org.everit.json.schema.ObjectSchema;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.StringSchema;
 import org.everit.json.schema.internal.JSONPrinter;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.JsonFieldType;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import cc.dille.restdocs.openapi.jsonschema.ConstraintResolver.ConstraintProfile;
 
 public class JsonSchemaFromFieldDescriptorsGenerator {
 
@@ -39,13 +31,21 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
     }
 
     public String generateSchema(List<FieldDescriptor> fieldDescriptors, String title) {
-        List<JsonFieldPath> jsonFieldPaths = distinct(fieldDescriptors).stream()
-                .map(JsonFieldPath::compile)
-                .collect(toList());
+        StringWriter writer = new StringWriter();
+        generateSchema(fieldDescriptors, title, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writes the formatted schema straight to the writer, which is left open.
+     */
+    public void generateSchema(List<FieldDescriptor> fieldDescriptors, String title, Writer writer) {
+        SegmentNode root = new SegmentNode();
+        distinct(fieldDescriptors).forEach(fieldDescriptor -> root.insert(JsonFieldPath.compile(fieldDescriptor)));
 
-        Schema schema = traverse(emptyList(), jsonFieldPaths, (ObjectSchema.Builder) ObjectSchema.builder().title(title));
+        Schema schema = traverse(root.children, (ObjectSchema.Builder) ObjectSchema.builder().title(title));
 
-        return toFormattedString(unWrapRootArray(jsonFieldPaths, schema));
+        writeFormatted(unWrapRootArray(root, schema), writer);
     }
 
     /**
@@ -84,81 +84,48 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
     }
 
 
-    private Schema unWrapRootArray(List<JsonFieldPath> jsonFieldPaths, Schema schema) {
-        if (schema instanceof ObjectSchema) {
+    private Schema unWrapRootArray(SegmentNode root, Schema schema) {
+        if (schema instanceof ObjectSchema && root.children.size() == 1 && root.children.containsKey("[]")) {
             ObjectSchema objectSchema = (ObjectSchema) schema;
-            final Map<String, List<JsonFieldPath>> groups = groupFieldsByFirstRemainingPathSegment(emptyList(), jsonFieldPaths);
-            if (groups.keySet().size() ==  1 && groups.keySet().contains("[]")) {
-                return ArraySchema.builder().allItemSchema(objectSchema.getPropertySchemas().get("[]")).title(objectSchema.getTitle()).build();
-            }
-
+            return ArraySchema.builder().allItemSchema(objectSchema.getPropertySchemas().get("[]")).title(objectSchema.getTitle()).build();
         }
         return schema;
     }
 
-    private String toFormattedString(Schema schema) {
-        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
-                .json()
-                .indentOutput(true)
-                .build();
-        StringWriter writer = new StringWriter();
-        schema.describeTo(new JSONPrinter(writer));
-        try {
-            return objectMapper.writeValueAsString(objectMapper.readTree(writer.toString()));
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    private void writeFormatted(Schema schema, Writer writer) {
+        JacksonJSONWriter jsonWriter = new JacksonJSONWriter(writer);
+        schema.describeTo(new JSONPrinter(jsonWriter));
+        jsonWriter.flush();
     }
 
-    private Schema traverse(List<String> traversedSegments, List<JsonFieldPath> jsonFieldPaths, ObjectSchema.Builder builder) {
-
-        Map<String, List<JsonFieldPath>> groupedFields = groupFieldsByFirstRemainingPathSegment(traversedSegments, jsonFieldPaths);
-        groupedFields.forEach((propertyName, fieldList) -> {
-
-            List<String> newTraversedSegments = new ArrayList<>(traversedSegments);
-            newTraversedSegments.add(propertyName);
-            fieldList.stream()
-                    .filter(isDirectMatch(newTraversedSegments))
-                    .findFirst()
-                    .map(directMatch -> {
-                        if (fieldList.size() == 1) {
-                            handleEndOfPath(builder, propertyName, directMatch.getFieldDescriptor());
-                        } else {
-                            List<JsonFieldPath> newFields = new ArrayList<>(fieldList);
-                            newFields.remove(directMatch);
-                            processRemainingSegments(builder, propertyName, newTraversedSegments, newFields, (String) directMatch.getFieldDescriptor().getDescription());
-                        }
-                        return true;
-                    }).orElseGet(() -> {
-                        processRemainingSegments(builder, propertyName, newTraversedSegments, fieldList, null);
-                        return true;
-                    });
+    private Schema traverse(Map<String, SegmentNode> children, ObjectSchema.Builder builder) {
+        children.forEach((propertyName, node) -> {
+            FieldDescriptor directMatch = node.directMatch();
+            if (directMatch != null && node.fieldCount == 1) {
+                handleEndOfPath(builder, propertyName, directMatch);
+            } else {
+                processRemainingSegments(builder, propertyName, node, directMatch == null ? null : (String) directMatch.getDescription());
+            }
         });
         return builder.build();
     }
 
-    private Predicate<JsonFieldPath> isDirectMatch(List<String> traversedSegments) {
-        //we have a direct match when there are no remaining segments or when the only following element is an array
-        return jsonFieldPath -> {
-            List<String> remainingSegments = jsonFieldPath.remainingSegments(traversedSegments);
-            return remainingSegments.isEmpty() || (remainingSegments.size() == 1 && isArraySegment(remainingSegments.get(0)));
-        };
-    }
-
-    private Map<String, List<JsonFieldPath>> groupFieldsByFirstRemainingPathSegment(List<String> traversedSegments, List<JsonFieldPath> jsonFieldPaths) {
-        return jsonFieldPaths.stream().collect(groupingBy(j -> j.remainingSegments(traversedSegments).get(0)));
-    }
-
-    private void processRemainingSegments(ObjectSchema.Builder builder, String propertyName, List<String> traversedSegments, List<JsonFieldPath> fields, String description) {
-        List<String> remainingSegments = fields.get(0).remainingSegments(traversedSegments);
-        if (remainingSegments.size() > 0 && isArraySegment(remainingSegments.get(0))) {
-            traversedSegments.add(remainingSegments.get(0));
+    private void processRemainingSegments(ObjectSchema.Builder builder, String propertyName, SegmentNode node, String description) {
+        SegmentNode arrayNode = node.arrayChild();
+        if (arrayNode != null) {
+            // The fields next to the array segment, if any, are merged into the items
+            Map<String, SegmentNode> itemChildren = new LinkedHashMap<>(arrayNode.children);
+            node.children.forEach((segment, child) -> {
+                if (!child.array) {
+                    itemChildren.putIfAbsent(segment, child);
+                }
+            });
             builder.addPropertySchema(propertyName, ArraySchema.builder()
-                    .allItemSchema(traverse(traversedSegments, fields, ObjectSchema.builder()))
+                    .allItemSchema(traverse(itemChildren, ObjectSchema.builder()))
                     .description(description)
                     .build());
         } else {
-            builder.addPropertySchema(propertyName, traverse(traversedSegments, fields, (ObjectSchema.Builder) ObjectSchema.builder()
+            builder.addPropertySchema(propertyName, traverse(node.children, (ObjectSchema.Builder) ObjectSchema.builder()
                     .description(description)));
         }
     }
@@ -168,7 +135,8 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
         if (fieldDescriptor.isIgnored()) {
             // We don't need to render anything
         } else {
-            if (isRequired(fieldDescriptor)) {
+            ConstraintProfile constraints = profile(fieldDescriptor);
+            if (constraints.isRequired()) {
                 builder.addRequiredProperty(propertyName);
             }
             if (fieldDescriptor.getType() == null || fieldDescriptor.getType().equals(JsonFieldType.NULL) || fieldDescriptor.getType().equals(JsonFieldType.VARIES)) {
@@ -194,8 +162,8 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
                         .build());
             } else if (fieldDescriptor.getType().equals(JsonFieldType.STRING)) {
                 builder.addPropertySchema(propertyName, StringSchema.builder()
-                        .minLength(minLengthString(fieldDescriptor))
-                        .maxLength(maxLengthString(fieldDescriptor))
+                        .minLength(constraints.getMinLength())
+                        .maxLength(constraints.getMaxLength())
                         .description((String) fieldDescriptor.getDescription())
                         .build());
             } else {
@@ -204,6 +172,55 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
         }
     }
 
+    /**
+     * A segment of the field paths: all the paths are inserted once, then the schema is built with a single walk.
+     */
+    private static class SegmentNode {
+        private final Map<String, SegmentNode> children = new LinkedHashMap<>();
+        private final boolean array;
+        private FieldDescriptor fieldDescriptor;
+        private int fieldCount;
+
+        SegmentNode() {
+            this(false);
+        }
+
+        private SegmentNode(boolean array) {
+            this.array = array;
+        }
+
+        void insert(JsonFieldPath jsonFieldPath) {
+            List<String> segments = jsonFieldPath.getSegments();
+            SegmentNode node = this;
+            for (int i = 0; i < segments.size(); i++) {
+                boolean array = jsonFieldPath.isArraySegment(i);
+                node = node.children.computeIfAbsent(segments.get(i), s -> new SegmentNode(array));
+                node.fieldCount++;
+            }
+            node.fieldDescriptor = jsonFieldPath.getFieldDescriptor();
+        }
+
+        /**
+         * The descriptor of the path ending here, or ending with an array segment right after.
+         */
+        FieldDescriptor directMatch() {
+            if (fieldDescriptor != null) {
+                return fieldDescriptor;
+            }
+            SegmentNode arrayNode = arrayChild();
+            return arrayNode == null ? null : arrayNode.fieldDescriptor;
+        }
+
+        SegmentNode arrayChild() {
+            for (SegmentNode child : children.values()) {
+                if (child.array) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
     static class MultipleNonEqualFieldDescriptors extends RuntimeException {
         MultipleNonEqualFieldDescriptors(String path) {
             super(String.format("Found multiple FieldDescriptors for '%s' with different values", path));
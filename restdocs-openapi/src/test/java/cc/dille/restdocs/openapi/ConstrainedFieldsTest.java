@@ -0,0 +1,40 @@
+package cc.dille.restdocs.openapi;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.validator.constraints.Length;
+import org.junit.Test;
+import org.springframework.restdocs.constraints.Constraint;
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+public class ConstrainedFieldsTest {
+
+    private FieldDescriptor fieldDescriptor;
+
+    private FieldDescriptor otherFieldDescriptor;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_resolve_constraints_once_per_property() {
+        // when
+        fieldDescriptor = new ConstrainedFields(ConstrainedBean.class).withPath("name");
+        otherFieldDescriptor = new ConstrainedFields(ConstrainedBean.class).withMappedPath("item.name", "name");
+
+        // then
+        List<Constraint> constraints = (List<Constraint>) fieldDescriptor.getAttributes().get("validationConstraints");
+        then(constraints).extracting(Constraint::getName)
+                .containsExactlyInAnyOrder(NotNull.class.getName(), Length.class.getName());
+        then(otherFieldDescriptor.getAttributes().get("validationConstraints")).isSameAs(constraints);
+        then(otherFieldDescriptor.getPath()).isEqualTo("item.name");
+    }
+
+    private static class ConstrainedBean {
+        @NotNull
+        @Length(min = 1, max = 10)
+        private String name;
+    }
+}
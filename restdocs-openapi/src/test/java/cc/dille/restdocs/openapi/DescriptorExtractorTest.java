@@ -1,6 +1,8 @@
 package cc.dille.restdocs.openapi;
 
 import org.junit.Test;
+import org.springframework.restdocs.headers.HeaderDescriptor;
+import org.springframework.restdocs.headers.RequestHeadersSnippet;
 import org.springframework.restdocs.hypermedia.LinkDescriptor;
 import org.springframework.restdocs.hypermedia.LinksSnippet;
 import org.springframework.restdocs.payload.FieldDescriptor;
@@ -15,6 +17,9 @@ import java.util.List;
 import static cc.dille.restdocs.openapi.DescriptorExtractor.extract;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
@@ -88,4 +93,29 @@ public class DescriptorExtractorTest {
         then(descriptors.stream().map(AbstractDescriptor::getDescription).collect(toList()))
                 .containsExactly("Is documented!", "Is documented!");
     }
+
+    @Test
+    public void should_extract_header_descriptors() {
+        // given
+        RequestHeadersSnippet snippet = requestHeaders(
+            headerWithName("Accept").description("Is documented!")
+        );
+
+        // when
+        List<HeaderDescriptor> descriptors = extract(snippet);
+
+        then(descriptors).hasSize(1);
+        then(descriptors.get(0).getName()).isEqualTo("Accept");
+    }
+
+    @Test
+    public void should_report_failed_extraction() {
+        // given
+        RequestFieldsSnippet snippet = null;
+
+        // when
+        thenThrownBy(() -> extract(snippet))
+                .isInstanceOf(DescriptorExtractor.DescriptorExtractionException.class)
+                .hasMessageContaining("AbstractFieldsSnippet");
+    }
 }
@@ -0,0 +1,87 @@
+package cc.dille.restdocs.openapi;
+
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DocumentationShutdownTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SnippetFileWriter fileWriter = SnippetFileWriter.async();
+
+    private final RecordingMetrics metrics = new RecordingMetrics();
+
+    private RuntimeException failure;
+
+    @Test
+    public void should_flush_pending_writes_before_closing_metrics() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            fileWriter.write(() -> {
+                sleep();
+                metrics.record("test", WRITE, "response-body", 1, 1);
+            });
+        }
+
+        // when
+        failure = new DocumentationShutdown(fileWriter, metrics).shutDown();
+
+        // then
+        then(failure).isNull();
+        then(metrics.writesWhenClosed.get()).isEqualTo(10);
+    }
+
+    @Test
+    public void should_return_and_report_failed_last_write_after_closing_metrics() throws IOException {
+        // given
+        fileWriter.addSnippetsDirectory(temporaryFolder.getRoot());
+        fileWriter.write(() -> {
+            throw new IOException("disk full");
+        });
+
+        // when
+        failure = new DocumentationShutdown(fileWriter, metrics).shutDown();
+
+        // then
+        then(failure).isInstanceOf(UncheckedIOException.class).hasMessageContaining("disk full");
+        then(metrics.writesWhenClosed.get()).isEqualTo(0);
+        File failureFile = new File(temporaryFolder.getRoot(), SnippetFileWriter.FAILURE_FILE_NAME);
+        then(failureFile).exists();
+        then(new String(Files.readAllBytes(failureFile.toPath()), UTF_8)).contains("disk full");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingMetrics implements DocumentationMetrics {
+        private final AtomicLong writes = new AtomicLong();
+        private final AtomicLong writesWhenClosed = new AtomicLong(-1);
+
+        @Override
+        public void record(String operationName, Step step, String name, long durationNanos, long bytes) {
+            writes.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            writesWhenClosed.set(writes.get());
+        }
+    }
+}
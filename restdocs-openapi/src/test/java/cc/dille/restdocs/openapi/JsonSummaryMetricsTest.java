@@ -0,0 +1,47 @@
+package cc.dille.restdocs.openapi;
+
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.HANDLER;
+import static cc.dille.restdocs.openapi.DocumentationMetrics.Step.WRITE;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonSummaryMetricsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JsonNode summary;
+
+    @Test
+    public void should_sum_up_slowest_operations_and_steps() throws IOException {
+        // given
+        File summaryFile = new File(temporaryFolder.getRoot(), "metrics/summary.json");
+        JsonSummaryMetrics metrics = new JsonSummaryMetrics(summaryFile.toPath());
+        metrics.record("fast", HANDLER, "RequestHandler", 5_000, 0);
+        metrics.record("slow", HANDLER, "RequestHandler", 2_000_000, 0);
+        metrics.record("slow", WRITE, "response-body", 50_000, 1024);
+
+        // when
+        metrics.writeSummary();
+        summary = new ObjectMapper().readTree(summaryFile);
+
+        // then
+        then(summary.at("/slowestOperations/0/operation").asText()).isEqualTo("slow");
+        then(summary.at("/slowestOperations/0/millis").asDouble()).isEqualTo(2.05);
+        then(summary.at("/slowestOperations/0/bytesWritten").asLong()).isEqualTo(1024);
+        then(summary.at("/slowestOperations/1/operation").asText()).isEqualTo("fast");
+        then(summary.at("/steps/handler:RequestHandler/count").asLong()).isEqualTo(2);
+        then(summary.at("/steps/handler:RequestHandler/histogram/<10us").asLong()).isEqualTo(1);
+        then(summary.at("/steps/handler:RequestHandler/histogram/<10ms").asLong()).isEqualTo(1);
+        then(summary.at("/steps/write:response-body/histogram/<100us").asLong()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package cc.dille.restdocs.openapi;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class OpenAPIFragmentWriterTest {
+
+    private Map<String, Object> model = new HashMap<>();
+
+    private String fragment;
+
+    @Test
+    public void should_keep_plain_scalars() {
+        then(OpenAPIFragmentWriter.scalar("The id of the item")).isEqualTo("The id of the item");
+        then(OpenAPIFragmentWriter.scalar("/some/{id}")).isEqualTo("/some/{id}");
+        then(OpenAPIFragmentWriter.scalar("application/hal+json")).isEqualTo("application/hal+json");
+        then(OpenAPIFragmentWriter.scalar("$response.body#/id")).isEqualTo("$response.body#/id");
+        then(OpenAPIFragmentWriter.scalar("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo("Wed, 21 Oct 2015 07:28:00 GMT");
+        then(OpenAPIFragmentWriter.scalar("-1")).isEqualTo("-1");
+        then(OpenAPIFragmentWriter.scalar(201)).isEqualTo("201");
+    }
+
+    @Test
+    public void should_quote_scalars_breaking_yaml() {
+        then(OpenAPIFragmentWriter.scalar("Note: the id")).isEqualTo("\"Note: the id\"");
+        then(OpenAPIFragmentWriter.scalar("The id # not a comment")).isEqualTo("\"The id # not a comment\"");
+        then(OpenAPIFragmentWriter.scalar("- not a list")).isEqualTo("\"- not a list\"");
+        then(OpenAPIFragmentWriter.scalar("*not an alias")).isEqualTo("\"*not an alias\"");
+        then(OpenAPIFragmentWriter.scalar("\"quoted\" id")).isEqualTo("\"\\\"quoted\\\" id\"");
+        then(OpenAPIFragmentWriter.scalar("first line\nsecond line")).isEqualTo("\"first line\\nsecond line\"");
+        then(OpenAPIFragmentWriter.scalar(" padded ")).isEqualTo("\" padded \"");
+        then(OpenAPIFragmentWriter.scalar("")).isEqualTo("\"\"");
+    }
+
+    @Test
+    public void should_quote_description_of_fragment() throws IOException {
+        givenModel();
+        model.put("statusDescription", "Created: see the Location header");
+
+        whenFragmentWritten();
+
+        then(fragment).isEqualTo("/some/{id}:\n"
+                + "  post:\n"
+                + "    operationId: postSome\n"
+                + "    responses:\n"
+                + "      201:\n"
+                + "        description: \"Created: see the Location header\"\n");
+    }
+
+    @Test
+    public void should_escape_quotes_in_include_file_names() throws IOException {
+        givenModel();
+        model.put("responseBodyPresent", true);
+        model.put("contentTypeResponse", "application/json");
+        model.put("responseBodyFileName", "it's-response.json");
+
+        whenFragmentWritten();
+
+        then(fragment).endsWith("        content:\n"
+                + "          application/json:\n"
+                + "            example: !include 'it''s-response.json'\n");
+    }
+
+    private void givenModel() {
+        model.put("resource", "/some/{id}");
+        model.put("method", "post");
+        model.put("operationId", "postSome");
+        model.put("status", 201);
+    }
+
+    private void whenFragmentWritten() throws IOException {
+        StringWriter writer = new StringWriter();
+        new OpenAPIFragmentWriter(writer).write(model);
+        fragment = writer.toString();
+    }
+}
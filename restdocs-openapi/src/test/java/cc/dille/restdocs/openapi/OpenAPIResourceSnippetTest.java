@@ -2,6 +2,7 @@ package cc.dille.restdocs.openapi;
 
 import cc.dille.restdocs.openapi.OpenAPIResourceSnippet.MissingUrlTemplateException;
 import cc.dille.restdocs.openapi.OpenAPIResourceSnippetParameters.OpenAPIResourceSnippetParametersBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import org.junit.Before;
 import org.junit.Rule;
@@ -11,10 +12,16 @@ import org.springframework.restdocs.operation.Operation;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 import static cc.dille.restdocs.openapi.OpenAPIResourceDocumentation.*;
+import static cc.dille.restdocs.openapi.OpenAPIResourceSnippetParameters.FragmentRenderer.STREAMING;
 import static cc.dille.restdocs.openapi.ParameterDescriptorWithOpenAPIType.OpenAPIScalarType.INTEGER;
 import static cc.dille.restdocs.openapi.ParameterDescriptorWithOpenAPIType.OpenAPIScalarType.STRING;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.contentOf;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
@@ -34,6 +41,8 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
 
     private OpenAPIResourceSnippetParametersBuilder parametersBuilder;
 
+    private SnippetFileWriter fileWriter = SnippetFileWriter.sync();
+
     @Before
     public void setUp() {
         parametersBuilder = OpenAPIResourceSnippetParameters.builder();
@@ -96,6 +105,104 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
         then(generatedResponseSchemaFile()).doesNotExist();
     }
 
+    @Test
+    @SneakyThrows
+    public void should_write_all_files_in_background_before_flush_returns() {
+        givenOperationWithRequestAndResponseBody();
+        givenRequestFieldDescriptors();
+        givenResponseFieldDescriptors();
+        givenLinksDescriptors();
+        givenAsyncFileWriter();
+
+        whenOpenAPISnippetInvoked();
+        fileWriter.flush();
+
+        thenFragmentFileExists();
+        then(contentOf(generatedOpenAPIFragmentFile())).contains("/some/{id}:");
+        then(generatedRequestJsonFile()).hasContent(operation.getRequest().getContentAsString());
+        then(generatedResponseJsonFile()).hasContent(operation.getResponse().getContentAsString());
+        then(generatedRequestSchemaFile()).exists();
+        then(generatedResponseSchemaFile()).exists();
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_stream_same_fragment_as_template() {
+        givenOperationWithRequestAndResponseBody();
+        givenRequestFieldDescriptors();
+        givenResponseFieldDescriptors();
+        givenResponseHeaderDescriptors();
+        givenLinksDescriptors();
+        givenPathParameterDescriptors();
+        givenRequestParameterDescriptors();
+        whenOpenAPISnippetInvoked();
+        String templateFragment = contentOf(generatedOpenAPIFragmentFile());
+
+        givenStreamingFragmentRenderer();
+        whenOpenAPISnippetInvoked();
+
+        then(contentOf(generatedOpenAPIFragmentFile())).isEqualTo(templateFragment);
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_stream_same_fragment_as_template_without_body() {
+        givenOperationWithoutBody();
+        whenOpenAPISnippetInvoked();
+        String templateFragment = contentOf(generatedOpenAPIFragmentFile());
+
+        givenStreamingFragmentRenderer();
+        whenOpenAPISnippetInvoked();
+
+        then(contentOf(generatedOpenAPIFragmentFile())).isEqualTo(templateFragment);
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_stream_same_fragment_as_template_for_link_without_description() {
+        givenOperationWithTitledLink();
+        givenLinkDescriptorWithoutDescription();
+        whenOpenAPISnippetInvoked();
+        String templateFragment = contentOf(generatedOpenAPIFragmentFile());
+
+        givenStreamingFragmentRenderer();
+        whenOpenAPISnippetInvoked();
+
+        then(contentOf(generatedOpenAPIFragmentFile())).isEqualTo(templateFragment);
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_store_body_of_other_charset_as_utf8() {
+        givenOperationWithLatin1ResponseBody();
+
+        whenOpenAPISnippetInvoked();
+
+        then(UTF_8.newDecoder().decode(ByteBuffer.wrap(Files.readAllBytes(generatedResponseJsonFile().toPath()))).toString())
+                .isEqualTo("{\"name\": \"Andr\u00e9\"}");
+        then(new ObjectMapper().readTree(generatedResponseJsonFile()).get("name").asText()).isEqualTo("Andr\u00e9");
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_store_body_of_unknown_charset_as_is() {
+        givenOperationWithResponseBodyOfContentType("application/json;charset=unknown-charset");
+
+        whenOpenAPISnippetInvoked();
+
+        then(generatedResponseJsonFile()).hasBinaryContent(operation.getResponse().getContent());
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_store_body_of_malformed_content_type_as_is() {
+        givenOperationWithResponseBodyOfContentType("application/json;charset");
+
+        whenOpenAPISnippetInvoked();
+
+        then(generatedResponseJsonFile()).hasBinaryContent(operation.getResponse().getContent());
+    }
+
     @Test
     @SneakyThrows
     public void should_fail_on_missing_url_template() {
@@ -108,6 +215,14 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
         parametersBuilder.pathParameters(parameterWithName("id").type(INTEGER).description("an id").example("12"));
     }
 
+    private void givenAsyncFileWriter() {
+        fileWriter = SnippetFileWriter.async();
+    }
+
+    private void givenStreamingFragmentRenderer() {
+        parametersBuilder.fragmentRenderer(STREAMING);
+    }
+
     private void givenRequestParameterDescriptors() {
         parametersBuilder.requestParameters(parameterWithName("test-param").type(STRING).description("test param").example("some value"));
     }
@@ -139,6 +254,34 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
         operation = operationBuilder.build();
     }
 
+    private void givenOperationWithLatin1ResponseBody() {
+        final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot())
+                .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}");
+        operationBuilder
+                .request("http://localhost:8080/some/123")
+                .method("GET");
+        operationBuilder
+                .response()
+                .status(200)
+                .header(CONTENT_TYPE, "application/json;charset=ISO-8859-1")
+                .content("{\"name\": \"Andr\u00e9\"}".getBytes(ISO_8859_1));
+        operation = operationBuilder.build();
+    }
+
+    private void givenOperationWithResponseBodyOfContentType(String contentType) {
+        final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot())
+                .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}");
+        operationBuilder
+                .request("http://localhost:8080/some/123")
+                .method("GET");
+        operationBuilder
+                .response()
+                .status(200)
+                .header(CONTENT_TYPE, contentType)
+                .content("{\"name\": \"Andr\u00e9\"}".getBytes(ISO_8859_1));
+        operation = operationBuilder.build();
+    }
+
     private void givenOperationWithoutUrlTemplate() {
         final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot());
         operationBuilder
@@ -176,6 +319,24 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
         parametersBuilder.links(linkWithRel("self").operationId("getSome").description("Sample description"));
     }
 
+    private void givenLinkDescriptorWithoutDescription() {
+        parametersBuilder.links(linkWithRel("self").operationId("getSome"));
+    }
+
+    private void givenOperationWithTitledLink() {
+        final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot())
+                .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}");
+        operationBuilder
+                .request("http://localhost:8080/some/123")
+                .method("GET");
+        operationBuilder
+                .response()
+                .status(200)
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .content("{\"_links\": {\"self\": {\"href\": \"some-url\", \"title\": \"Some\"}}}");
+        operation = operationBuilder.build();
+    }
+
     private void givenOperationWithRequestAndResponseBody() {
         final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot())
                 .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}");
@@ -196,8 +357,8 @@ public class OpenAPIResourceSnippetTest implements OpenAPIResourceSnippetTestTra
     }
 
     private void whenOpenAPISnippetInvoked() throws IOException {
-        openAPIResource(parametersBuilder
+        new OpenAPIResourceSnippet(parametersBuilder
                 .statusDescription("some resource").operationId("postSome")
-                .build()).document(operation);
+                .build(), fileWriter).document(operation);
     }
 }
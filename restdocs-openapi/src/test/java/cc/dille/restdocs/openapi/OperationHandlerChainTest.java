@@ -3,7 +3,6 @@ package cc.dille.restdocs.openapi;
 import static org.assertj.core.api.BDDAssertions.then;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Test;
@@ -24,6 +23,15 @@ public class OperationHandlerChainTest {
         then(model).containsEntry("key2", "key2");
     }
 
+    @Test
+    public void should_skip_handlers_not_supporting_operation() {
+        operationHandlerChain = new OperationHandlerChain(Arrays.asList(new TestHandler("key1"), new UnsupportedHandler()));
+
+        whenHandlerChainProcessed();
+
+        then(model).containsOnlyKeys("key1");
+    }
+
     private void whenHandlerChainProcessed() {
         model = operationHandlerChain.process(new OperationBuilder().build(), OpenAPIResourceSnippetParameters.builder().build());
     }
@@ -41,11 +49,21 @@ public class OperationHandlerChainTest {
         private final String key;
 
         @Override
-        public Map<String, Object> generateModel(Operation operation, OpenAPIResourceSnippetParameters parameters) {
-            Map<String, Object> model = new HashMap<>();
+        public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
             model.put(key, key);
-            return model;
         }
     }
 
-}
\ No newline at end of file
+    private static class UnsupportedHandler implements OperationHandler {
+
+        @Override
+        public boolean supports(Operation operation, OpenAPIResourceSnippetParameters parameters) {
+            return false;
+        }
+
+        @Override
+        public void addModel(Operation operation, OpenAPIResourceSnippetParameters parameters, Map<String, Object> model) {
+            throw new AssertionError("the handler should be skipped");
+        }
+    }
+}
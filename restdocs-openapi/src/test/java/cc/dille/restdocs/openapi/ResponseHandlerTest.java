@@ -74,6 +74,24 @@ public class ResponseHandlerTest {
         then(model.get("contentTypeResponse")).isEqualTo(APPLICATION_JSON_VALUE);
     }
 
+    @Test
+    public void should_ignore_invalid_content_type_parameters() {
+        givenResponseWithJsonBodyOfContentType("application/json;charset=unknown-charset");
+
+        whenModelGenerated();
+
+        then(model.get("contentTypeResponse")).isEqualTo(APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    public void should_default_invalid_content_type_to_json() {
+        givenResponseWithJsonBodyOfContentType("json");
+
+        whenModelGenerated();
+
+        then(model.get("contentTypeResponse")).isEqualTo(APPLICATION_JSON_VALUE);
+    }
+
     private void whenModelGenerated() {
         model = responseHandler.generateModel(operation, OpenAPIResourceSnippetParameters.builder().build());
     }
@@ -92,6 +110,15 @@ public class ResponseHandlerTest {
                 .build();
     }
 
+    private void givenResponseWithJsonBodyOfContentType(String contentType) {
+        operation = new OperationBuilder()
+                .response()
+                .status(200)
+                .header(CONTENT_TYPE, contentType)
+                .content("{\"comment\": \"some\"}")
+                .build();
+    }
+
     private void givenResponseWithJsonBodyWithoutContentType() {
         operation = new OperationBuilder()
                 .response()
@@ -0,0 +1,64 @@
+package cc.dille.restdocs.openapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnippetFileWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SnippetFileWriter fileWriter = SnippetFileWriter.async();
+
+    @Test
+    public void should_write_all_files_before_flush_returns() throws IOException {
+        // given
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            Path file = directory.resolve("file-" + i + ".json");
+            byte[] content = ("{ \"id\" : " + i + " }").getBytes(UTF_8);
+            fileWriter.write(() -> Files.write(file, content));
+        }
+        fileWriter.flush();
+
+        // then
+        then(directory.toFile().list()).hasSize(1000);
+        then(new String(Files.readAllBytes(directory.resolve("file-999.json")), UTF_8)).isEqualTo("{ \"id\" : 999 }");
+    }
+
+    @Test
+    public void should_delete_failure_reported_by_previous_run() throws IOException {
+        // given
+        File failureFile = temporaryFolder.newFile(SnippetFileWriter.FAILURE_FILE_NAME);
+
+        // when
+        fileWriter.addSnippetsDirectory(temporaryFolder.getRoot());
+
+        // then
+        then(failureFile).doesNotExist();
+    }
+
+    @Test
+    public void should_rethrow_failed_write_on_flush() {
+        // given
+        fileWriter.write(() -> {
+            throw new IOException("disk full");
+        });
+
+        // then
+        thenThrownBy(fileWriter::flush).isInstanceOf(UncheckedIOException.class).hasMessageContaining("disk full");
+    }
+}
@@ -0,0 +1,68 @@
+package cc.dille.restdocs.openapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.restdocs.templates.Template;
+
+import cc.dille.restdocs.openapi.OpenAPIResourceSnippet.OpenAPITemplateFormat;
+
+public class TemplateCacheTest {
+
+    private static final String TEMPLATE_NAME = "openapi-resource";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+    private Template template;
+
+    private Template otherTemplate;
+
+    @After
+    public void restoreContextClassLoader() {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+
+    @Test
+    public void should_reuse_compiled_template() {
+        whenTemplateResolvedTwice();
+
+        then(otherTemplate).isSameAs(template);
+    }
+
+    @Test
+    public void should_compile_custom_template() throws IOException {
+        template = new TemplateCache(new OpenAPITemplateFormat()).getTemplate(TEMPLATE_NAME);
+        givenCustomTemplate("custom: {{resource}}");
+
+        otherTemplate = new TemplateCache(new OpenAPITemplateFormat()).getTemplate(TEMPLATE_NAME);
+
+        then(otherTemplate).isNotSameAs(template);
+        then(otherTemplate.render(singletonMap("resource", "/some"))).isEqualTo("custom: /some");
+    }
+
+    private void whenTemplateResolvedTwice() {
+        template = new TemplateCache(new OpenAPITemplateFormat()).getTemplate(TEMPLATE_NAME);
+        otherTemplate = new TemplateCache(new OpenAPITemplateFormat()).getTemplate(TEMPLATE_NAME);
+    }
+
+    private void givenCustomTemplate(String content) throws IOException {
+        File templateDirectory = temporaryFolder.newFolder("org", "springframework", "restdocs", "templates", "openapi");
+        Files.write(new File(templateDirectory, TEMPLATE_NAME + ".snippet").toPath(), content.getBytes(UTF_8));
+        Thread.currentThread().setContextClassLoader(
+                new URLClassLoader(new URL[]{temporaryFolder.getRoot().toURI().toURL()}, contextClassLoader));
+    }
+}
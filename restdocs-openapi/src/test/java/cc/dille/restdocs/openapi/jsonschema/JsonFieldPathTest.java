@@ -1,24 +1,22 @@
 package cc.dille.restdocs.openapi.jsonschema;
 
-import static java.util.Collections.emptyList;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
 import org.junit.Test;
 
-import com.google.common.collect.ImmutableList;
-
 public class JsonFieldPathTest {
 
     @Test
-    public void should_get_remaining_segments() throws Exception {
-        final JsonFieldPath jsonFieldPath = JsonFieldPath.compile(fieldWithPath("a.b.c"));
+    public void should_share_compiled_segments() {
+        final JsonFieldPath jsonFieldPath = JsonFieldPath.compile(fieldWithPath("a[].b['c.d'][*]"));
+        final JsonFieldPath samePath = JsonFieldPath.compile(fieldWithPath("a[].b['c.d'][*]").description("other"));
 
-        then(jsonFieldPath.remainingSegments(ImmutableList.of("a"))).contains("b", "c");
-        then(jsonFieldPath.remainingSegments(ImmutableList.of("a", "b"))).contains("c");
-        then(jsonFieldPath.remainingSegments(ImmutableList.of("a", "b", "c"))).isEmpty();
-        then(jsonFieldPath.remainingSegments(ImmutableList.of("d", "e", "c"))).contains("a", "b", "c");
-        then(jsonFieldPath.remainingSegments(emptyList())).contains("a", "b", "c");
+        then(jsonFieldPath.getSegments()).containsExactly("a", "[]", "b", "c.d", "[*]");
+        then(samePath.getSegments()).isSameAs(jsonFieldPath.getSegments());
+        then(jsonFieldPath.isArraySegment(0)).isFalse();
+        then(jsonFieldPath.isArraySegment(1)).isTrue();
+        then(jsonFieldPath.isArraySegment(3)).isFalse();
+        then(jsonFieldPath.isArraySegment(4)).isTrue();
     }
-
-}
\ No newline at end of file
+}
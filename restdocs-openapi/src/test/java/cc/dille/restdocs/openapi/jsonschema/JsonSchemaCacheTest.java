@@ -0,0 +1,107 @@
+package cc.dille.restdocs.openapi.jsonschema;
+
+import static cc.dille.restdocs.openapi.jsonschema.JsonSchemaCache.fingerprint;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.springframework.restdocs.payload.JsonFieldType.NUMBER;
+import static org.springframework.restdocs.payload.JsonFieldType.STRING;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.validator.constraints.Length;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.restdocs.constraints.Constraint;
+import org.springframework.restdocs.constraints.ValidatorConstraintResolver;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.snippet.Attributes;
+
+public class JsonSchemaCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private List<FieldDescriptor> fieldDescriptors;
+
+    private byte[] schema;
+
+    @Test
+    public void should_reuse_schema_of_equal_descriptors() {
+        givenFieldDescriptors();
+        JsonSchemaCache schemaCache = new JsonSchemaCache(new JsonSchemaFromFieldDescriptorsGenerator(), null);
+
+        schema = schemaCache.getSchema(fieldDescriptors);
+
+        then(schemaCache.getSchema(fieldDescriptors())).isSameAs(schema);
+        then(new String(schema, UTF_8)).isEqualTo(new JsonSchemaFromFieldDescriptorsGenerator().generateSchema(fieldDescriptors));
+    }
+
+    @Test
+    public void should_fingerprint_descriptor_properties() {
+        givenFieldDescriptors();
+
+        then(fingerprint(fieldDescriptors)).isEqualTo(fingerprint(fieldDescriptors()));
+        then(fingerprint(fieldDescriptors)).isNotEqualTo(fingerprint(Arrays.asList(
+                fieldWithPath("id").description("other").type(STRING),
+                fieldDescriptors.get(1))));
+        then(fingerprint(fieldDescriptors)).isNotEqualTo(fingerprint(Arrays.asList(
+                fieldWithPath("id").description("some").type(STRING).optional(),
+                fieldDescriptors.get(1))));
+        then(fingerprint(fieldDescriptors)).isNotEqualTo(fingerprint(Arrays.asList(
+                fieldDescriptors.get(0),
+                fieldWithPath("amount").description("some").type(NUMBER))));
+    }
+
+    @Test
+    public void should_fingerprint_validator_constraints_the_same_in_every_jvm() {
+        List<FieldDescriptor> constrainedFieldDescriptors = singletonList(fieldWithPath("name").description("some").type(STRING)
+                .attributes(Attributes.key("validationConstraints")
+                        .value(new ValidatorConstraintResolver().resolveForProperty("name", ConstrainedBean.class))));
+
+        then(fingerprint(constrainedFieldDescriptors)).isEqualTo("7432249d316c6e0cb5c81eed61a476b963114a518f63eca1aee9d6b121ded0fe");
+    }
+
+    @Test
+    public void should_reuse_stored_schema() {
+        givenFieldDescriptors();
+        Path directory = temporaryFolder.getRoot().toPath().resolve("schemas");
+        schema = new JsonSchemaCache(new JsonSchemaFromFieldDescriptorsGenerator(), directory).getSchema(fieldDescriptors);
+
+        byte[] storedSchema = new JsonSchemaCache(new FailingGenerator(), directory).getSchema(fieldDescriptors());
+
+        then(storedSchema).isEqualTo(schema);
+    }
+
+    private void givenFieldDescriptors() {
+        fieldDescriptors = fieldDescriptors();
+    }
+
+    private List<FieldDescriptor> fieldDescriptors() {
+        return Arrays.asList(
+                fieldWithPath("id").description("some").type(STRING),
+                fieldWithPath("amount").description("some").type(NUMBER).attributes(Attributes.key("notImportant")
+                        .value(singletonList(new Constraint(NotNull.class.getName(), emptyMap())))));
+    }
+
+    private static class ConstrainedBean {
+        @NotNull
+        @Length(min = 1, max = 10)
+        private String name;
+    }
+
+    private static class FailingGenerator extends JsonSchemaFromFieldDescriptorsGenerator {
+        @Override
+        public void generateSchema(List<FieldDescriptor> fieldDescriptors, String title, Writer writer) {
+            throw new AssertionError("the stored schema should be reused");
+        }
+    }
+}
@@ -12,6 +12,7 @@ import static org.springframework.restdocs.payload.JsonFieldType.STRING;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -34,6 +35,7 @@ import org.springframework.restdocs.snippet.Attributes;
 import org.springframework.restdocs.snippet.Attributes.Attribute;
 
 import cc.dille.restdocs.openapi.jsonschema.JsonSchemaFromFieldDescriptorsGenerator.MultipleNonEqualFieldDescriptors;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jackson.JsonLoader;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
@@ -123,6 +125,19 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
                 "}");
     }
 
+    @Test
+    public void should_write_formatted_schema() throws IOException {
+        givenFieldDescriptorsWithConstraints();
+
+        StringWriter writer = new StringWriter();
+        generator.generateSchema(fieldDescriptors, "title", writer);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        then(writer.toString()).isEqualTo(objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(objectMapper.readTree(writer.toString())));
+        then(objectMapper.readTree(writer.toString()).get("title").asText()).isEqualTo("title");
+    }
+
     @Test
     public void should_generate_schema_for_top_level_array() {
         givenFieldDescriptorWithTopLevelArray();
@@ -146,6 +161,21 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         thenSchemaValidatesJson("{\"a\": [1]}");
     }
 
+    @Test
+    public void should_generate_schema_for_described_array_of_objects() {
+        givenFieldDescriptorsWithDescribedArray();
+
+        whenSchemaGenerated();
+
+        ArraySchema itemsSchema = (ArraySchema) ((ObjectSchema) schema).getPropertySchemas().get("items");
+        then(itemsSchema.getDescription()).isEqualTo("the items");
+        ObjectSchema itemSchema = (ObjectSchema) itemsSchema.getAllItemSchema();
+        then(itemSchema.getPropertySchemas()).containsOnlyKeys("name", "tags");
+        then(itemSchema.getPropertySchemas().get("tags")).isInstanceOf(ArraySchema.class);
+        thenSchemaIsValid();
+        thenSchemaValidatesJson("{\"items\": [{\"name\": \"some\", \"tags\": [\"some\"]}]}");
+    }
+
     @Test
     public void should_fail_on_unknown_field_type() {
         givenFieldDescriptorWithInvalidType();
@@ -190,6 +220,14 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         fieldDescriptors = singletonList(fieldWithPath("[]['id']").description("some").type(STRING));
     }
 
+    private void givenFieldDescriptorsWithDescribedArray() {
+        fieldDescriptors = Arrays.asList(
+                fieldWithPath("items[]").description("the items").type(ARRAY),
+                fieldWithPath("items[].name").description("some").type(STRING),
+                fieldWithPath("items[].tags[]").description("some").type(ARRAY)
+        );
+    }
+
     private void givenFieldDescriptorWithInvalidType() {
         fieldDescriptors = singletonList(fieldWithPath("id").description("some").type("invalid-type"));
     }